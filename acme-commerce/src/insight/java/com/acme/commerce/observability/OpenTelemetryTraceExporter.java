@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import io.micrometer.tracing.exporter.FinishedSpan;
+import io.micrometer.tracing.otel.bridge.OtelFinishedSpan;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.Assert;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * A {@link TraceExporter} handing the spans of kept traces to the OpenTelemetry {@link SpanExporter}s registered in the
+ * application context, e.g. the Zipkin one. As {@link TailSampler} vetoes the regular export of all spans, this is the
+ * only way for them to reach the tracing backend. Falls back to the given {@link TraceExporter} if no
+ * {@link SpanExporter} is registered.
+ *
+ * @author Oliver Drotbohm
+ */
+class OpenTelemetryTraceExporter implements TraceExporter {
+
+	private final SingletonSupplier<List<SpanExporter>> exporters;
+	private final TraceExporter fallback;
+
+	OpenTelemetryTraceExporter(ObjectProvider<SpanExporter> exporters, TraceExporter fallback) {
+
+		Assert.notNull(exporters, "SpanExporters must not be null!");
+		Assert.notNull(fallback, "Fallback TraceExporter must not be null!");
+
+		// Resolved lazily as the exporters are registered by auto-configuration
+		this.exporters = SingletonSupplier.of(() -> exporters.orderedStream().toList());
+		this.fallback = fallback;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.observability.TraceExporter#export(java.util.List)
+	 */
+	@Override
+	public void export(List<FinishedSpan> spans) {
+
+		var exporters = this.exporters.obtain();
+
+		if (exporters.isEmpty()) {
+			fallback.export(spans);
+			return;
+		}
+
+		var data = spans.stream() //
+				.map(OtelFinishedSpan::toOtel) //
+				.toList();
+
+		for (SpanExporter exporter : exporters) {
+			exporter.export(data);
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands the traces kept by the {@link TailSampler} to the OpenTelemetry exporters instead of writing them to a local
+ * file. Only compiled by the insight profile, which also adds the OpenTelemetry bridge, so that the default build
+ * doesn't carry it.
+ *
+ * @author Oliver Drotbohm
+ * @see TailSamplingConfiguration
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "acme.commerce.tracing.tail-sampling.enabled", havingValue = "true")
+class OpenTelemetryTraceExporterConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	TraceExporter openTelemetryTraceExporter(ObjectProvider<SpanExporter> exporters,
+			TailSamplingProperties properties) {
+		return new OpenTelemetryTraceExporter(exporters, new FileTraceExporter(properties.getOutput()));
+	}
+}
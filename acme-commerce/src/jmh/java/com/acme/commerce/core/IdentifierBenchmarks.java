@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Compares {@link IdentifierGenerator#RANDOM} and {@link IdentifierGenerator#TIME_ORDERED} regarding generation
+ * throughput under contention and regarding insert throughput and primary key index size in a file-based H2 database.
+ * Run with {@code mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=IdentifierBenchmarks}.
+ *
+ * @author Oliver Drotbohm
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdentifierBenchmarks {
+
+	@Benchmark
+	@Threads(8)
+	public UUID generateRandom() {
+		return IdentifierGenerator.RANDOM.generate();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public UUID generateTimeOrdered() {
+		return IdentifierGenerator.TIME_ORDERED.generate();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public int[] insert(Database database) throws SQLException {
+		return database.insertBatch();
+	}
+
+	/**
+	 * A file-based H2 database with a single table keyed by UUID. Keeps growing across iterations so that the insert
+	 * throughput reflects an increasingly large primary key index. Reports the size of the database on tear down.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	@State(Scope.Benchmark)
+	public static class Database {
+
+		private static final int BATCH_SIZE = 1_000;
+
+		@Param({ "RANDOM", "TIME_ORDERED" }) String strategy;
+
+		Path directory;
+		Connection connection;
+		PreparedStatement insert;
+		IdentifierGenerator generator;
+		long rows;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException, SQLException {
+
+			this.generator = strategy.equals("RANDOM") ? IdentifierGenerator.RANDOM : IdentifierGenerator.TIME_ORDERED;
+			this.directory = Files.createTempDirectory("identifier-benchmarks");
+			this.connection = DriverManager.getConnection("jdbc:h2:" + directory.resolve("db").toAbsolutePath());
+
+			try (var statement = connection.createStatement()) {
+				statement.execute("create table entries (id uuid primary key, payload varchar(64))");
+			}
+
+			this.insert = connection.prepareStatement("insert into entries (id, payload) values (?, ?)");
+			this.connection.setAutoCommit(false);
+		}
+
+		int[] insertBatch() throws SQLException {
+
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				insert.setObject(1, generator.generate());
+				insert.setString(2, "payload");
+				insert.addBatch();
+			}
+
+			var result = insert.executeBatch();
+			connection.commit();
+			rows += BATCH_SIZE;
+
+			return result;
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException, SQLException {
+
+			try (var statement = connection.createStatement()) {
+				statement.execute("checkpoint sync");
+			}
+
+			connection.close();
+
+			long size;
+
+			try (var files = Files.walk(directory)) {
+				size = files.filter(Files::isRegularFile).mapToLong(it -> it.toFile().length()).sum();
+			}
+
+			System.out.printf("%n%s: %d rows, database size %d KiB (%.1f bytes per row)%n", strategy, rows, size / 1024,
+					rows == 0 ? 0d : (double) size / rows);
+
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+}
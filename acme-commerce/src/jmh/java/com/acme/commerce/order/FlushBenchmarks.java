@@ -0,0 +1,130 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.commerce.AcmeCommerce;
+import com.acme.commerce.catalog.Product;
+import com.acme.commerce.core.Currencies;
+import com.acme.commerce.core.Quantity;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+
+/**
+ * Measures the cost of flushing a persistence context holding a large number of {@link Order}s that haven't been
+ * changed. {@link #loadOnly()} rolls back and thus never flushes, so that the difference to {@link #loadAndFlush()} is
+ * the time spent in dirty checking. With {@link #readOnly} set, the transaction loads the {@link Order}s read-only and
+ * skips the flush entirely. Compare the bytecode-enhanced build with the snapshot-based baseline by running with the
+ * {@code unenhanced} profile, which skips the bytecode enhancement:
+ *
+ * <pre>
+ * mvn -Pbenchmarks clean test-compile exec:exec -Dbenchmark=FlushBenchmarks
+ * mvn -Pbenchmarks,unenhanced clean test-compile exec:exec -Dbenchmark=FlushBenchmarks
+ * </pre>
+ *
+ * @author Oliver Drotbohm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlushBenchmarks {
+
+	private static final int NUMBER_OF_ORDERS = 2_000;
+	private static final int NUMBER_OF_LINE_ITEMS = 5;
+
+	@Param({ "false", "true" }) boolean readOnly;
+
+	ConfigurableApplicationContext context;
+	OrderRepository orders;
+	TransactionTemplate transactions;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		this.context = new SpringApplicationBuilder(AcmeCommerce.class) //
+				.web(WebApplicationType.NONE) //
+				.properties("spring.jpa.show-sql=false", "acme.commerce.jdbc.enforce-budgets=false") //
+				.run();
+
+		this.orders = context.getBean(OrderRepository.class);
+		this.transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		this.transactions.setReadOnly(readOnly);
+
+		var products = new ArrayList<Product>(NUMBER_OF_LINE_ITEMS);
+
+		for (int i = 0; i < NUMBER_OF_LINE_ITEMS; i++) {
+			products.add(new Product("Product " + i, Money.of(10, Currencies.EURO)));
+		}
+
+		var batch = new ArrayList<Order>(NUMBER_OF_ORDERS);
+
+		for (int i = 0; i < NUMBER_OF_ORDERS; i++) {
+
+			var order = new Order(new CustomerIdentifier(UUID.randomUUID()));
+			products.forEach(it -> order.addOrderLine(it, Quantity.of(1)));
+
+			batch.add(order);
+		}
+
+		orders.saveAll(batch);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public long loadOnly() {
+
+		return transactions.execute(status -> {
+
+			status.setRollbackOnly();
+
+			return orders.findByOrderStatus(OrderStatus.OPEN).stream().count();
+		});
+	}
+
+	@Benchmark
+	public long loadAndFlush() {
+		return transactions.execute(__ -> orders.findByOrderStatus(OrderStatus.OPEN).stream().count());
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.acme.commerce.catalog.Product;
+import com.acme.commerce.core.Currencies;
+import com.acme.commerce.core.Quantity;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.order.OrderMetrics.TransitionOutcome;
+
+/**
+ * Compares the in-memory part of an {@link Order}'s lifecycle with and without {@link OrderMetrics} recording. As the
+ * baseline excludes all persistence work, the relative overhead observed here is an upper bound of the one in
+ * production. Run with {@code mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=OrderMetricsBenchmarks}.
+ * <p>
+ * Running {@link #main(String[])} instead ({@code mvn -Pbenchmarks test-compile exec:exec
+ * -Dbenchmark.runner=com.acme.commerce.order.OrderMetricsBenchmarks}) compares {@link #instrumented()} against
+ * {@link #baseline()} and fails if the recording adds more than {@value #MAX_OVERHEAD_PERCENT}% to the lifecycle,
+ * taking the score errors of both into account.
+ *
+ * @author Oliver Drotbohm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMetricsBenchmarks {
+
+	private static final int NUMBER_OF_LINE_ITEMS = 10;
+	private static final double MAX_OVERHEAD_PERCENT = 1.0;
+
+	CustomerIdentifier customer;
+	Product[] products;
+	OrderMetrics metrics;
+
+	@Setup
+	public void setUp() {
+
+		this.customer = new CustomerIdentifier(UUID.randomUUID());
+		this.products = new Product[NUMBER_OF_LINE_ITEMS];
+
+		for (int i = 0; i < NUMBER_OF_LINE_ITEMS; i++) {
+			products[i] = new Product("Product " + i, Money.of(10, Currencies.EURO));
+		}
+
+		this.metrics = new OrderMetrics(new SimpleMeterRegistry());
+	}
+
+	@Benchmark
+	public OrderCompletionReport baseline() {
+		return lifecycle();
+	}
+
+	@Benchmark
+	public OrderCompletionReport instrumented() {
+
+		var start = metrics.start();
+		var report = lifecycle();
+
+		metrics.recordPayment(start, TransitionOutcome.SUCCESS);
+		metrics.recordCompletion(start, report.getOrder());
+
+		return report;
+	}
+
+	@Benchmark
+	public long recordingOnly() {
+
+		var start = metrics.start();
+
+		metrics.recordPayment(start, TransitionOutcome.SUCCESS);
+		metrics.recordCancellation(start, TransitionOutcome.REJECTED);
+
+		return start;
+	}
+
+	/**
+	 * Runs {@link #baseline()} and {@link #instrumented()} and verifies the overhead of the latter stays within
+	 * {@value #MAX_OVERHEAD_PERCENT}% of the former.
+	 *
+	 * @param args ignored.
+	 * @throws RunnerException in case the benchmarks could not be run.
+	 */
+	public static void main(String[] args) throws RunnerException {
+
+		var options = new OptionsBuilder() //
+				.include(OrderMetricsBenchmarks.class.getName() + "\\.(baseline|instrumented)$") //
+				.build();
+
+		var results = new HashMap<String, Result<?>>();
+
+		for (RunResult result : new Runner(options).run()) {
+			results.put(result.getPrimaryResult().getLabel(), result.getPrimaryResult());
+		}
+
+		var baseline = results.get("baseline");
+		var instrumented = results.get("instrumented");
+
+		// Lower bound of the difference, so that noise alone does not fail the check
+		var difference = (instrumented.getScore() - instrumented.getScoreError())
+				- (baseline.getScore() + baseline.getScoreError());
+		var overhead = Math.max(difference, 0) / baseline.getScore() * 100;
+
+		System.out.printf("Metrics overhead: %.2f%% (%.1f vs. %.1f ns/op)%n", overhead, instrumented.getScore(),
+				baseline.getScore());
+
+		if (overhead > MAX_OVERHEAD_PERCENT) {
+			throw new IllegalStateException("Metrics overhead of %.2f%% exceeds %.1f%%!".formatted(overhead,
+					MAX_OVERHEAD_PERCENT));
+		}
+	}
+
+	private OrderCompletionReport lifecycle() {
+
+		var order = new Order(customer);
+
+		for (Product product : products) {
+			order.addOrderLine(product, Quantity.of(2));
+		}
+
+		order.markPaid().complete();
+
+		return OrderCompletionReport.forCompletions(order, order.getOrderLines() //
+				.map(OrderCompletionReport.OrderLineCompletion::success) //
+				.toList());
+	}
+}
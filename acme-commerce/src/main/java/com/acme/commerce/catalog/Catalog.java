@@ -25,12 +25,14 @@ import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.util.Streamable;
 
 import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.StatementBudget;
 
 /**
  * Repository interface for {@link Product}s
  *
  * @author Oliver Drotbohm
  */
+@StatementBudget
 public interface Catalog
 		extends CrudRepository<Product, ProductIdentifier>, PagingAndSortingRepository<Product, ProductIdentifier>,
 		AssociationResolver<Product, ProductIdentifier> {
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.catalog;
+
+import lombok.Value;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+
+/**
+ * Properties to configure the catalog. Declare {@code acme.commerce.catalog.…} in application properties to tweak
+ * settings.
+ *
+ * @author Oliver Drotbohm
+ */
+@Value
+@ConfigurationProperties("acme.commerce.catalog")
+class CatalogProperties {
+
+	private static final int DEFAULT_RESOLVER_CACHE_SIZE = 10_000;
+
+	/**
+	 * The maximum number of {@link Product}s the {@link ProductResolver} keeps in its cache.
+	 */
+	private int resolverCacheSize;
+
+	CatalogProperties(@Nullable Integer resolverCacheSize) {
+		this.resolverCacheSize = resolverCacheSize == null ? DEFAULT_RESOLVER_CACHE_SIZE : resolverCacheSize;
+	}
+}
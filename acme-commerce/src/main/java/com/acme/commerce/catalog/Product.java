@@ -16,6 +16,7 @@
 package com.acme.commerce.catalog;
 
 import jakarta.persistence.ElementCollection;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import lombok.Getter;
 import lombok.Setter;
@@ -34,6 +35,7 @@ import org.springframework.data.util.Streamable;
 import org.springframework.util.Assert;
 
 import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.Identifiers;
 import com.acme.commerce.core.Metric;
 import com.acme.commerce.core.MetricMismatchException;
 import com.acme.commerce.core.Quantity;
@@ -43,11 +45,12 @@ import com.acme.commerce.core.Quantity;
  *
  * @author Oliver Drotbohm
  */
+@EntityListeners(ProductResolver.CacheInvalidator.class)
 public class Product extends AbstractAggregateRoot<Product> implements AggregateRoot<Product, ProductIdentifier> {
 
 	private static final String INVALID_METRIC = "Product %s does not support quantity %s using metric %s!";
 
-	private ProductIdentifier id = new ProductIdentifier(UUID.randomUUID());
+	private ProductIdentifier id = new ProductIdentifier(Identifiers.next());
 	private @Getter @Setter String name;
 	private @Getter @Setter MonetaryAmount price;
 	private @ElementCollection(fetch = FetchType.EAGER) Set<String> categories = new HashSet<String>();
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.catalog;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.BatchAssociationResolver;
+
+/**
+ * Resolves associations to {@link Product}s in bulk through the {@link Catalog} and caches them. Use this to render
+ * lists of aggregates referring to {@link Product}s instead of resolving them one by one.
+ *
+ * @author Oliver Drotbohm
+ */
+@Component
+public class ProductResolver extends BatchAssociationResolver<Product, ProductIdentifier> {
+
+	ProductResolver(Catalog catalog, CatalogProperties properties) {
+		super(catalog, properties.getResolverCacheSize());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.core.BatchAssociationResolver#initialize(org.jmolecules.ddd.types.AggregateRoot)
+	 */
+	@Override
+	protected void initialize(Product product) {
+
+		// Traverses the categories to load them in case they're mapped lazily
+		product.getCategories().forEach(__ -> {});
+	}
+
+	/**
+	 * JPA entity listener evicting {@link Product}s from the cache whenever they are changed. Instantiated by Hibernate
+	 * through the Spring container. As the callbacks are invoked on flush, the eviction is repeated once the transaction
+	 * completed (see {@link BatchAssociationResolver#evict(org.jmolecules.ddd.types.Identifier)}).
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	@RequiredArgsConstructor
+	static class CacheInvalidator {
+
+		private final ObjectProvider<ProductResolver> resolver;
+
+		@PostPersist
+		@PostUpdate
+		@PostRemove
+		void evict(Product product) {
+			resolver.ifAvailable(it -> it.evict(product.getId()));
+		}
+	}
+}
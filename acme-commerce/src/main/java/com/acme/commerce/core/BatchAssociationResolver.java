@@ -0,0 +1,267 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+
+import org.jmolecules.ddd.types.AggregateRoot;
+import org.jmolecules.ddd.types.Association;
+import org.jmolecules.ddd.types.Identifier;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Resolves {@link Association}s to {@link AggregateRoot}s in bulk. All identifiers not cached already are looked up
+ * using a single {@code IN} query per chunk of {@value #CHUNK_SIZE} identifiers. Resolved aggregates are kept in a
+ * bounded LRU cache that has to be invalidated via {@link #evict(Identifier)} whenever an aggregate changes. Results of
+ * lookups racing with an eviction are not cached. The aggregates returned are shared between callers and must not be
+ * modified.
+ * <p>
+ * Aggregates looked up within a transaction are only cached once it committed, i.e. once they are not managed by its
+ * persistence context anymore. Lazily loaded state has to be initialized in {@link #initialize(AggregateRoot)} so that
+ * the cached aggregates can be used outside of the persistence context they were loaded in.
+ *
+ * @author Oliver Drotbohm
+ */
+public class BatchAssociationResolver<T extends AggregateRoot<T, ID>, ID extends Identifier> {
+
+	private static final int CHUNK_SIZE = 500;
+
+	private final CrudRepository<T, ID> repository;
+	private final Map<ID, T> cache;
+	private long evictions;
+
+	/**
+	 * Creates a new {@link BatchAssociationResolver} for the given {@link CrudRepository} caching up to the given number
+	 * of aggregates.
+	 *
+	 * @param repository must not be {@literal null}.
+	 * @param cacheSize must not be negative, 0 disables caching.
+	 */
+	public BatchAssociationResolver(CrudRepository<T, ID> repository, int cacheSize) {
+
+		Assert.notNull(repository, "Repository must not be null!");
+		Assert.isTrue(cacheSize >= 0, "Cache size must not be negative!");
+
+		this.repository = repository;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ID, T> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Resolves the given {@link Association}.
+	 *
+	 * @param association must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Optional<T> resolve(Association<T, ID> association) {
+
+		Assert.notNull(association, "Association must not be null!");
+
+		return Optional.ofNullable(resolveIdentifiers(List.of(association.getId())).get(association.getId()));
+	}
+
+	/**
+	 * Resolves all given {@link Association}s.
+	 *
+	 * @param associations must not be {@literal null}.
+	 * @return the resolved aggregates by identifier, identifiers that could not be resolved are missing. Will never be
+	 *         {@literal null}.
+	 */
+	public Map<ID, T> resolve(Collection<? extends Association<T, ID>> associations) {
+
+		Assert.notNull(associations, "Associations must not be null!");
+
+		return resolveIdentifiers(associations.stream().map(Association::getId).toList());
+	}
+
+	/**
+	 * Resolves the aggregates with the given identifiers.
+	 *
+	 * @param identifiers must not be {@literal null}.
+	 * @return the resolved aggregates by identifier, identifiers that could not be resolved are missing. Will never be
+	 *         {@literal null}.
+	 */
+	public Map<ID, T> resolveIdentifiers(Collection<ID> identifiers) {
+
+		Assert.notNull(identifiers, "Identifiers must not be null!");
+
+		var result = new HashMap<ID, T>(identifiers.size());
+		var missing = new LinkedHashSet<ID>();
+		long evictions;
+
+		synchronized (cache) {
+
+			evictions = this.evictions;
+
+			for (ID identifier : identifiers) {
+
+				var cached = cache.get(identifier);
+
+				if (cached != null) {
+					result.put(identifier, cached);
+				} else {
+					missing.add(identifier);
+				}
+			}
+		}
+
+		if (missing.isEmpty()) {
+			return result;
+		}
+
+		var chunk = new ArrayList<ID>(Math.min(missing.size(), CHUNK_SIZE));
+
+		for (ID identifier : missing) {
+
+			chunk.add(identifier);
+
+			if (chunk.size() == CHUNK_SIZE) {
+				lookup(chunk, result, evictions);
+				chunk.clear();
+			}
+		}
+
+		if (!chunk.isEmpty()) {
+			lookup(chunk, result, evictions);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Removes the aggregate with the given identifier from the cache. If invoked within a transaction, the aggregate is
+	 * evicted again once the transaction completes, as concurrent lookups might have cached its previous state until the
+	 * change became visible to them.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 */
+	public void evict(ID identifier) {
+
+		Assert.notNull(identifier, "Identifier must not be null!");
+
+		remove(identifier);
+		afterCompletion(__ -> remove(identifier));
+	}
+
+	/**
+	 * Removes all aggregates from the cache.
+	 */
+	public void evictAll() {
+
+		synchronized (cache) {
+			cache.clear();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Initializes lazily loaded state of the given aggregate before it is cached. Subclasses have to override this if the
+	 * aggregates they resolve contain lazily loaded associations or collections.
+	 *
+	 * @param aggregate will never be {@literal null}.
+	 */
+	protected void initialize(T aggregate) {}
+
+	private void lookup(List<ID> identifiers, Map<ID, T> result, long evictions) {
+
+		var found = new ArrayList<T>(identifiers.size());
+
+		for (T aggregate : repository.findAllById(identifiers)) {
+
+			initialize(aggregate);
+
+			found.add(aggregate);
+			result.put(aggregate.getId(), aggregate);
+		}
+
+		var deferred = afterCompletion(status -> {
+			if (status == TransactionSynchronization.STATUS_COMMITTED) {
+				cache(found, evictions);
+			}
+		});
+
+		if (!deferred) {
+			cache(found, evictions);
+		}
+	}
+
+	private void cache(List<T> aggregates, long evictions) {
+
+		synchronized (cache) {
+
+			if (evictions != this.evictions) {
+				return;
+			}
+
+			for (T aggregate : aggregates) {
+				cache.put(aggregate.getId(), aggregate);
+			}
+		}
+	}
+
+	private void remove(ID identifier) {
+
+		synchronized (cache) {
+			cache.remove(identifier);
+			evictions++;
+		}
+	}
+
+	/**
+	 * Registers the given callback to be invoked with the completion status of the current transaction.
+	 *
+	 * @param callback must not be {@literal null}.
+	 * @return whether the callback was registered, i.e. whether transaction synchronization is active.
+	 */
+	private static boolean afterCompletion(IntConsumer callback) {
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return false;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			/*
+			 * (non-Javadoc)
+			 * @see org.springframework.transaction.support.TransactionSynchronization#afterCompletion(int)
+			 */
+			@Override
+			public void afterCompletion(int status) {
+				callback.accept(status);
+			}
+		});
+
+		return true;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Strategy to generate the {@link UUID}s backing aggregate and entity identifiers. Declare a bean of this type to
+ * replace the strategy configured via {@link IdentifierProperties}.
+ *
+ * @author Oliver Drotbohm
+ * @see Identifiers
+ */
+@FunctionalInterface
+public interface IdentifierGenerator {
+
+	/**
+	 * Generates random (version 4) {@link UUID}s using the shared {@link java.security.SecureRandom}.
+	 */
+	IdentifierGenerator RANDOM = UUID::randomUUID;
+
+	/**
+	 * Generates time-ordered (version 7) {@link UUID}s: the 48 most significant bits contain the current Unix timestamp
+	 * in milliseconds, the remaining 74 bits not occupied by version and variant are random. Uses
+	 * {@link ThreadLocalRandom} so that concurrent generation does not contend on a shared random number generator.
+	 * Identifiers created subsequently sort close to each other, so that inserts append to the primary key index
+	 * instead of being scattered across it.
+	 */
+	IdentifierGenerator TIME_ORDERED = () -> {
+
+		var random = ThreadLocalRandom.current();
+		var timestamp = System.currentTimeMillis();
+
+		var mostSignificantBits = timestamp << 16 | 0x7000L | random.nextInt(1 << 12);
+		var leastSignificantBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+
+		return new UUID(mostSignificantBits, leastSignificantBits);
+	};
+
+	/**
+	 * Generates a new {@link UUID}.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	UUID generate();
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties to configure the generation of identifiers. Declare {@code acme.commerce.identifiers.…} in application
+ * properties to tweak settings.
+ *
+ * @author Oliver Drotbohm
+ */
+@Value
+@ConfigurationProperties("acme.commerce.identifiers")
+class IdentifierProperties {
+
+	/**
+	 * The strategy to generate identifiers with. Ignored if a custom {@link IdentifierGenerator} bean is declared.
+	 */
+	private Strategy strategy;
+
+	IdentifierProperties(@Nullable Strategy strategy) {
+		this.strategy = strategy == null ? Strategy.TIME_ORDERED : strategy;
+	}
+
+	@RequiredArgsConstructor
+	enum Strategy {
+
+		TIME_ORDERED(IdentifierGenerator.TIME_ORDERED),
+
+		RANDOM(IdentifierGenerator.RANDOM);
+
+		private final IdentifierGenerator generator;
+	}
+
+	/**
+	 * Applies the configured {@link IdentifierGenerator} to {@link Identifiers} on startup.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	@Component
+	@RequiredArgsConstructor
+	static class IdentifierGeneratorRegistrar implements InitializingBean {
+
+		private final IdentifierProperties properties;
+		private final ObjectProvider<IdentifierGenerator> generator;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+		 */
+		@Override
+		public void afterPropertiesSet() {
+			Identifiers.use(generator.getIfAvailable(() -> properties.getStrategy().generator));
+		}
+	}
+}
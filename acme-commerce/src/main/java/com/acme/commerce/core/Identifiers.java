@@ -0,0 +1,55 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.util.UUID;
+
+import org.springframework.util.Assert;
+
+/**
+ * Entry point for aggregates and entities to obtain the {@link UUID}s for their identifiers. As identifiers are
+ * created on instantiation, outside the control of the application context, the {@link IdentifierGenerator} in use is
+ * held statically and configured on application startup. Defaults to {@link IdentifierGenerator#TIME_ORDERED}.
+ *
+ * @author Oliver Drotbohm
+ */
+public final class Identifiers {
+
+	private static volatile IdentifierGenerator generator = IdentifierGenerator.TIME_ORDERED;
+
+	private Identifiers() {}
+
+	/**
+	 * Returns a new {@link UUID} created by the currently configured {@link IdentifierGenerator}.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public static UUID next() {
+		return generator.generate();
+	}
+
+	/**
+	 * Configures the {@link IdentifierGenerator} to use.
+	 *
+	 * @param generator must not be {@literal null}.
+	 */
+	static void use(IdentifierGenerator generator) {
+
+		Assert.notNull(generator, "IdentifierGenerator must not be null!");
+
+		Identifiers.generator = generator;
+	}
+}
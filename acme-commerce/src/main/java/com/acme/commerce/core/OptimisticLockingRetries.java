@@ -0,0 +1,145 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Executes callbacks in a dedicated transaction and retries them in case an {@link OptimisticLockingFailureException}
+ * occurs. Retries are delayed using an exponential backoff with full jitter so that concurrent modifications of the
+ * same aggregate do not collide again right away. If invoked with a transaction already running, the callback is
+ * executed as is, as a retry within that transaction would be pointless.
+ *
+ * @author Oliver Drotbohm
+ */
+@Slf4j
+@Component
+public class OptimisticLockingRetries {
+
+	private static final int DEFAULT_MAX_ATTEMPTS = 5;
+	private static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(10);
+	private static final Duration MAX_BACKOFF = Duration.ofMillis(500);
+
+	private final TransactionOperations transactions;
+	private final int maxAttempts;
+	private final Duration initialBackoff;
+
+	/**
+	 * Creates a new {@link OptimisticLockingRetries} for the given {@link TransactionOperations}.
+	 *
+	 * @param transactions must not be {@literal null}.
+	 */
+	@Autowired
+	public OptimisticLockingRetries(TransactionOperations transactions) {
+		this(transactions, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF);
+	}
+
+	OptimisticLockingRetries(TransactionOperations transactions, int maxAttempts, Duration initialBackoff) {
+
+		Assert.notNull(transactions, "TransactionOperations must not be null!");
+		Assert.isTrue(maxAttempts > 0, "Max attempts must be greater than zero!");
+		Assert.notNull(initialBackoff, "Initial backoff must not be null!");
+
+		this.transactions = transactions;
+		this.maxAttempts = maxAttempts;
+		this.initialBackoff = initialBackoff;
+	}
+
+	/**
+	 * Executes the given callback and retries it in case of optimistic locking failures.
+	 *
+	 * @param callback must not be {@literal null}.
+	 * @return the result of the callback.
+	 */
+	public <T> T execute(Supplier<T> callback) {
+		return execute(callback, callback);
+	}
+
+	/**
+	 * Executes the given callback and uses the given retry callback in case of optimistic locking failures. Useful if
+	 * the first attempt can work with state already at hand, but retries need to look up fresh state.
+	 *
+	 * @param callback must not be {@literal null}.
+	 * @param retry must not be {@literal null}.
+	 * @return the result of the callback.
+	 */
+	public <T> T execute(Supplier<T> callback, Supplier<T> retry) {
+
+		Assert.notNull(callback, "Callback must not be null!");
+		Assert.notNull(retry, "Retry callback must not be null!");
+
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return callback.get();
+		}
+
+		for (int attempt = 1;; attempt++) {
+
+			var current = attempt == 1 ? callback : retry;
+
+			try {
+				return transactions.execute(__ -> current.get());
+			} catch (OptimisticLockingFailureException o_O) {
+
+				if (attempt >= maxAttempts) {
+					throw o_O;
+				}
+
+				log.debug("Optimistic locking failure on attempt {}, retrying.", attempt, o_O);
+
+				backoff(attempt, o_O);
+			}
+		}
+	}
+
+	/**
+	 * Runs the given callback and retries it in case of optimistic locking failures.
+	 *
+	 * @param callback must not be {@literal null}.
+	 */
+	public void run(Runnable callback) {
+
+		Assert.notNull(callback, "Callback must not be null!");
+
+		execute(() -> {
+			callback.run();
+			return null;
+		});
+	}
+
+	private void backoff(int attempt, OptimisticLockingFailureException cause) {
+
+		var ceiling = Math.min(MAX_BACKOFF.toMillis(), initialBackoff.toMillis() << (attempt - 1));
+
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			throw cause;
+		}
+	}
+}
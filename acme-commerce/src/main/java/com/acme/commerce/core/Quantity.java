@@ -109,7 +109,7 @@ public class Quantity implements ValueObject {
 	 * @param metric must not be {@literal null}.
 	 * @return
 	 */
-	static Quantity of(BigDecimal amount, Metric metric) {
+	public static Quantity of(BigDecimal amount, Metric metric) {
 		return new Quantity(amount, metric);
 	}
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link DataSource} routing connections obtained within read-only transactions to a replica and all others to the
+ * primary. Needs to be wrapped into a {@link LazyConnectionDataSourceProxy} as transaction managers obtain the
+ * {@link java.sql.Connection} before the transaction's read-only flag is exposed. Use {@link #wrap(DataSource,
+ * DataSource)} to create a properly set up instance.
+ *
+ * @author Oliver Drotbohm
+ */
+class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+	enum Route {
+		PRIMARY, REPLICA;
+	}
+
+	private ReadOnlyRoutingDataSource(DataSource primary, DataSource replica) {
+
+		setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	/**
+	 * Returns a {@link DataSource} routing read-only transactions to the given replica.
+	 *
+	 * @param primary must not be {@literal null}.
+	 * @param replica must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static DataSource wrap(DataSource primary, DataSource replica) {
+
+		Assert.notNull(primary, "Primary DataSource must not be null!");
+		Assert.notNull(replica, "Replica DataSource must not be null!");
+
+		return new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primary, replica));
+	}
+
+	/**
+	 * Returns whether the given {@link DataSource} was created by {@link #wrap(DataSource, DataSource)}.
+	 *
+	 * @param dataSource must not be {@literal null}.
+	 * @return
+	 */
+	static boolean isRouting(DataSource dataSource) {
+		return dataSource instanceof LazyConnectionDataSourceProxy proxy
+				&& proxy.getTargetDataSource() instanceof ReadOnlyRoutingDataSource;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource#determineCurrentLookupKey()
+	 */
+	@Override
+	protected Route determineCurrentLookupKey() {
+
+		return TransactionSynchronizationManager.isCurrentTransactionReadOnly() //
+				? Route.REPLICA
+				: Route.PRIMARY;
+	}
+}
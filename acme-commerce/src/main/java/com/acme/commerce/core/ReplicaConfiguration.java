@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Routes read-only transactions to the replica configured via {@link ReplicaProperties}. The primary
+ * {@link DataSource} is wrapped before any other post-processing, so that the instrumentation applied by
+ * {@link StatementBudgetConfiguration} covers statements issued against both databases.
+ * <p>
+ * Replicas lag behind the primary. Lookups that need to see changes just committed, e.g. in asynchronous event
+ * listeners, must thus not run in read-only transactions.
+ *
+ * @author Oliver Drotbohm
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("acme.commerce.datasource.replica.url")
+class ReplicaConfiguration {
+
+	@Bean
+	static BeanPostProcessor replicaRoutingBeanPostProcessor(ObjectProvider<ReplicaProperties> properties) {
+		return new ReplicaRoutingBeanPostProcessor(properties);
+	}
+
+	/**
+	 * Wraps the primary {@link DataSource} into one routing to the replica. The replica's connection pool is not a bean
+	 * itself, so it's closed on shutdown explicitly.
+	 */
+	@RequiredArgsConstructor
+	private static class ReplicaRoutingBeanPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+		private final ObjectProvider<ReplicaProperties> properties;
+		private final List<DataSource> replicas = new CopyOnWriteArrayList<>();
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.beans.factory.config.BeanPostProcessor#postProcessAfterInitialization(java.lang.Object, java.lang.String)
+		 */
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+			if (!(bean instanceof DataSource primary) || ReadOnlyRoutingDataSource.isRouting(primary)) {
+				return bean;
+			}
+
+			var replica = properties.getObject();
+
+			log.info("Routing read-only transactions on {} to replica {}.", beanName, replica.getUrl());
+
+			var dataSource = DataSourceBuilder.create() //
+					.url(replica.getUrl()) //
+					.username(replica.getUsername()) //
+					.password(replica.getPassword()) //
+					.build();
+
+			replicas.add(dataSource);
+
+			return ReadOnlyRoutingDataSource.wrap(primary, dataSource);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.beans.factory.DisposableBean#destroy()
+		 */
+		@Override
+		public void destroy() {
+
+			for (var replica : replicas) {
+
+				if (!(replica instanceof AutoCloseable closeable)) {
+					continue;
+				}
+
+				try {
+					closeable.close();
+				} catch (Exception o_O) {
+					log.warn("Failed to close replica DataSource {}!", replica, o_O);
+				}
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.core.Ordered#getOrder()
+		 */
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+	}
+}
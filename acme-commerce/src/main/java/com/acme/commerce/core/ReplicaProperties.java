@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import lombok.Value;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+
+/**
+ * Properties to configure a read replica of the primary database. Declare {@code acme.commerce.datasource.replica.…}
+ * in application properties to route read-only transactions to it.
+ *
+ * @author Oliver Drotbohm
+ */
+@Value
+@ConfigurationProperties("acme.commerce.datasource.replica")
+class ReplicaProperties {
+
+	/**
+	 * The JDBC URL of the replica. Read-only transactions are routed to it if set.
+	 */
+	private @Nullable String url;
+
+	/**
+	 * The user name to connect to the replica with.
+	 */
+	private @Nullable String username;
+
+	/**
+	 * The password to connect to the replica with.
+	 */
+	private @Nullable String password;
+
+	ReplicaProperties(@Nullable String url, @Nullable String username, @Nullable String password) {
+
+		this.url = url;
+		this.username = username;
+		this.password = password;
+	}
+}
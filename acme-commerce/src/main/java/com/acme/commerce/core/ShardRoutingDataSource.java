@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.util.HashMap;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link DataSource} routing connections to the shard currently bound via {@link Shards} and to the primary if none
+ * is bound. Use {@link #wrap(DataSource, List)} to create an instance that defers the lookup to the first statement
+ * actually executed.
+ *
+ * @author Oliver Drotbohm
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+	private ShardRoutingDataSource(DataSource primary, List<DataSource> shards) {
+
+		var targets = new HashMap<Object, Object>(shards.size() + 1);
+
+		targets.put(0, primary);
+
+		for (int i = 0; i < shards.size(); i++) {
+			targets.put(i + 1, shards.get(i));
+		}
+
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+	}
+
+	/**
+	 * Returns a {@link DataSource} routing to the given primary and additional shards.
+	 *
+	 * @param primary must not be {@literal null}.
+	 * @param shards must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static DataSource wrap(DataSource primary, List<DataSource> shards) {
+
+		Assert.notNull(primary, "Primary DataSource must not be null!");
+		Assert.notNull(shards, "Shards must not be null!");
+
+		return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(primary, shards));
+	}
+
+	/**
+	 * Returns whether the given {@link DataSource} was created by {@link #wrap(DataSource, List)}.
+	 *
+	 * @param dataSource must not be {@literal null}.
+	 * @return
+	 */
+	static boolean isRouting(DataSource dataSource) {
+		return dataSource instanceof LazyConnectionDataSourceProxy proxy
+				&& proxy.getTargetDataSource() instanceof ShardRoutingDataSource;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource#determineCurrentLookupKey()
+	 */
+	@Nullable
+	@Override
+	protected Integer determineCurrentLookupKey() {
+		return Shards.current();
+	}
+}
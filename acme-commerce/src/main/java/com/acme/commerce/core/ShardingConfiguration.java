@@ -0,0 +1,318 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.schema.TargetType;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.Nullable;
+import org.springframework.modulith.events.EventPublicationRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Sets up the infrastructure to shard data across the databases configured via {@link ShardingProperties}:
+ * <ul>
+ * <li>Routes the primary {@link DataSource} to the shard bound via {@link Shards}. Applied after
+ * {@link ReplicaConfiguration} and before the instrumentation of {@link StatementBudgetConfiguration}.</li>
+ * <li>Creates missing tables in the additional shards from the JPA mapping if
+ * {@link ShardingProperties#isInitializeSchema()} is set.</li>
+ * <li>Marks event publications as completed on all shards, as they're stored in the very shard the transaction
+ * publishing the event ran on while listeners usually complete them on the primary. The completion is not atomic
+ * across shards, see {@link ShardedCompletionInterceptor} for details.</li>
+ * </ul>
+ *
+ * @author Oliver Drotbohm
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+class ShardingConfiguration {
+
+	@Bean
+	static BeanPostProcessor shardRoutingBeanPostProcessor(ObjectProvider<ShardingProperties> properties,
+			ObjectProvider<PlatformTransactionManager> transactionManager) {
+		return new ShardRoutingBeanPostProcessor(properties, transactionManager);
+	}
+
+	@Bean
+	HibernatePropertiesCustomizer shardSchemaInitializingCustomizer(ShardingProperties properties) {
+
+		return hibernateProperties -> {
+
+			if (properties.isSharded() && properties.isInitializeSchema()) {
+				hibernateProperties.put("hibernate.integrator_provider",
+						(IntegratorProvider) () -> List.of(new ShardSchemaInitializer(properties.getNumberOfShards())));
+			}
+		};
+	}
+
+	/**
+	 * Wraps the primary {@link DataSource} into one routing to the additional shards and the
+	 * {@link EventPublicationRegistry} into one marking publications completed on all shards. The connection pools of
+	 * the additional shards are not beans themselves, so they're closed on shutdown explicitly.
+	 */
+	@RequiredArgsConstructor
+	private static class ShardRoutingBeanPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+		private final ObjectProvider<ShardingProperties> properties;
+		private final ObjectProvider<PlatformTransactionManager> transactionManager;
+		private final List<DataSource> shards = new CopyOnWriteArrayList<>();
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.beans.factory.config.BeanPostProcessor#postProcessAfterInitialization(java.lang.Object, java.lang.String)
+		 */
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+			if (!(bean instanceof DataSource) && !(bean instanceof EventPublicationRegistry)) {
+				return bean;
+			}
+
+			var sharding = properties.getObject();
+
+			if (!sharding.isSharded()) {
+				return bean;
+			}
+
+			if (bean instanceof EventPublicationRegistry) {
+
+				var interceptor = new ShardedCompletionInterceptor(sharding.getNumberOfShards(),
+						SingletonSupplier.of(() -> createTransactionTemplate(transactionManager.getObject())));
+
+				if (bean instanceof Advised advised && !advised.isFrozen()) {
+					advised.addAdvice(interceptor);
+					return bean;
+				}
+
+				var factory = new ProxyFactory(bean);
+				factory.addInterface(EventPublicationRegistry.class);
+				factory.addAdvice(interceptor);
+
+				return factory.getProxy(bean.getClass().getClassLoader());
+			}
+
+			if (!(bean instanceof DataSource primary) || ShardRoutingDataSource.isRouting(primary)) {
+				return bean;
+			}
+
+			log.info("Sharding {} across {} databases.", beanName, sharding.getNumberOfShards());
+
+			var dataSources = sharding.getUrls().stream() //
+					.map(it -> (DataSource) DataSourceBuilder.create() //
+							.url(it) //
+							.username(sharding.getUsername()) //
+							.password(sharding.getPassword()) //
+							.build()) //
+					.toList();
+
+			shards.addAll(dataSources);
+
+			return ShardRoutingDataSource.wrap(primary, dataSources);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.beans.factory.DisposableBean#destroy()
+		 */
+		@Override
+		public void destroy() {
+
+			for (var shard : shards) {
+
+				if (!(shard instanceof AutoCloseable closeable)) {
+					continue;
+				}
+
+				try {
+					closeable.close();
+				} catch (Exception o_O) {
+					log.warn("Failed to close shard DataSource {}!", shard, o_O);
+				}
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.core.Ordered#getOrder()
+		 */
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE + 1;
+		}
+
+		private static TransactionTemplate createTransactionTemplate(PlatformTransactionManager transactionManager) {
+
+			var template = new TransactionTemplate(transactionManager);
+			template.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+
+			return template;
+		}
+	}
+
+	/**
+	 * Repeats {@link EventPublicationRegistry#markCompleted(Object,
+	 * org.springframework.modulith.events.PublicationTargetIdentifier)} on all shards but the one the invocation was
+	 * originally issued against, each in a transaction of its own. If the original invocation runs in a transaction, the
+	 * repetitions are deferred until it committed, so that a publication is never marked completed on another shard if
+	 * the listener's changes were rolled back.
+	 * <p>
+	 * The completion is thus not atomic across shards: if marking it completed on one of them fails, or the application
+	 * stops in between, the publication stays incomplete on that shard and is resubmitted, i.e. the listener sees the
+	 * event again as with any other incomplete publication. Failures on individual shards are logged and don't keep the
+	 * completion from being attempted on the remaining ones.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	@RequiredArgsConstructor
+	private static class ShardedCompletionInterceptor implements MethodInterceptor {
+
+		private final int numberOfShards;
+		private final Supplier<TransactionTemplate> transactions;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+		 */
+		@Nullable
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+
+			var result = invocation.proceed();
+
+			if (!invocation.getMethod().getName().equals("markCompleted")) {
+				return result;
+			}
+
+			var current = Shards.current() == null ? 0 : Shards.current();
+
+			if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+				markCompletedOnOtherShards(invocation, current);
+				return result;
+			}
+
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				/*
+				 * (non-Javadoc)
+				 * @see org.springframework.transaction.support.TransactionSynchronization#afterCommit()
+				 */
+				@Override
+				public void afterCommit() {
+					markCompletedOnOtherShards(invocation, current);
+				}
+			});
+
+			return result;
+		}
+
+		private void markCompletedOnOtherShards(MethodInvocation invocation, int current) {
+
+			for (int shard = 0; shard < numberOfShards; shard++) {
+
+				if (shard == current) {
+					continue;
+				}
+
+				try {
+					Shards.run(shard, () -> transactions.get().executeWithoutResult(__ -> invokeTarget(invocation)));
+				} catch (RuntimeException o_O) {
+					log.warn("Failed to mark event publication completed on shard {}!", shard, o_O);
+				}
+			}
+		}
+
+		private static void invokeTarget(MethodInvocation invocation) {
+
+			try {
+				AopUtils.invokeJoinpointUsingReflection(invocation.getThis(), invocation.getMethod(),
+						invocation.getArguments());
+			} catch (RuntimeException o_O) {
+				throw o_O;
+			} catch (Throwable o_O) {
+				throw new IllegalStateException(o_O);
+			}
+		}
+	}
+
+	/**
+	 * Creates missing tables in all shards but the primary one, which is handled by Hibernate's regular schema
+	 * management.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	@RequiredArgsConstructor
+	private static class ShardSchemaInitializer implements Integrator {
+
+		private final int numberOfShards;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.hibernate.integrator.spi.Integrator#integrate(org.hibernate.boot.Metadata, org.hibernate.boot.spi.BootstrapContext, org.hibernate.engine.spi.SessionFactoryImplementor)
+		 */
+		@Override
+		public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+				SessionFactoryImplementor sessionFactory) {
+
+			for (int shard = 1; shard < numberOfShards; shard++) {
+
+				log.info("Initializing schema of shard {}.", shard);
+
+				Shards.run(shard, () -> new SchemaUpdate().execute(EnumSet.of(TargetType.DATABASE), metadata));
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.hibernate.integrator.spi.Integrator#disintegrate(org.hibernate.engine.spi.SessionFactoryImplementor, org.hibernate.service.spi.SessionFactoryServiceRegistry)
+		 */
+		@Override
+		public void disintegrate(SessionFactoryImplementor sessionFactory,
+				SessionFactoryServiceRegistry serviceRegistry) {}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import lombok.Value;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+
+/**
+ * Properties to configure additional databases data can be sharded across. The primary database always acts as shard
+ * zero. Declare {@code acme.commerce.datasource.shards.…} in application properties to tweak settings. The number of
+ * shards must not change once data has been written, see {@link #getUrls()}.
+ *
+ * @author Oliver Drotbohm
+ */
+@Value
+@ConfigurationProperties("acme.commerce.datasource.shards")
+public class ShardingProperties {
+
+	/**
+	 * The JDBC URLs of the additional shards. Customers are assigned to a shard by the hash code of their identifier
+	 * modulo the number of shards. Changing the number of shards thus moves most customers to a different shard and
+	 * their existing data is not found anymore, as it isn't migrated. Keep the list stable once data has been written.
+	 */
+	private List<String> urls;
+
+	/**
+	 * The user name to connect to the additional shards with.
+	 */
+	private @Nullable String username;
+
+	/**
+	 * The password to connect to the additional shards with.
+	 */
+	private @Nullable String password;
+
+	/**
+	 * Whether to create missing tables in the additional shards based on the JPA mapping on startup.
+	 */
+	private boolean initializeSchema;
+
+	ShardingProperties(@Nullable List<String> urls, @Nullable String username, @Nullable String password,
+			@Nullable Boolean initializeSchema) {
+
+		this.urls = urls == null ? List.of() : List.copyOf(urls);
+		this.username = username;
+		this.password = password;
+		this.initializeSchema = initializeSchema == null ? true : initializeSchema;
+	}
+
+	/**
+	 * Returns whether any additional shards are configured.
+	 *
+	 * @return
+	 */
+	public boolean isSharded() {
+		return !urls.isEmpty();
+	}
+
+	/**
+	 * Returns the overall number of shards including the primary database.
+	 *
+	 * @return will always be greater than zero.
+	 */
+	public int getNumberOfShards() {
+		return urls.size() + 1;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.util.function.Supplier;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Binds the shard to be used by the application's {@link javax.sql.DataSource} to the current thread. Only takes
+ * effect if shards are configured via {@link ShardingProperties}. The binding is evaluated when a
+ * {@link java.sql.Connection} is actually needed, i.e. on the first statement of a transaction, so that a transaction
+ * must not span multiple shards.
+ *
+ * @author Oliver Drotbohm
+ */
+public final class Shards {
+
+	private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+	private Shards() {}
+
+	/**
+	 * Executes the given callback with the given shard bound to the current thread. Restores the previous binding
+	 * afterwards.
+	 *
+	 * @param shard the index of the shard, zero for the primary database.
+	 * @param callback must not be {@literal null}.
+	 * @return the result of the callback.
+	 */
+	public static <T> T on(int shard, Supplier<T> callback) {
+
+		Assert.isTrue(shard >= 0, "Shard must not be negative!");
+		Assert.notNull(callback, "Callback must not be null!");
+
+		var previous = CURRENT.get();
+
+		CURRENT.set(shard);
+
+		try {
+			return callback.get();
+		} finally {
+
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Runs the given callback with the given shard bound to the current thread.
+	 *
+	 * @param shard the index of the shard, zero for the primary database.
+	 * @param callback must not be {@literal null}.
+	 */
+	public static void run(int shard, Runnable callback) {
+
+		Assert.notNull(callback, "Callback must not be null!");
+
+		on(shard, () -> {
+			callback.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Returns the shard bound to the current thread.
+	 *
+	 * @return the index of the shard or {@literal null} if none is bound, which is equivalent to the primary database.
+	 */
+	@Nullable
+	public static Integer current() {
+		return CURRENT.get();
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the maximum number of JDBC statements an invocation of the annotated method is supposed to issue. On a type,
+ * enables the tracking of JDBC statements, rows fetched and time spent for all methods of the type, without a budget
+ * unless declared explicitly. Annotated types usually are the interfaces of a module's API.
+ *
+ * @author Oliver Drotbohm
+ * @see StatementStatistics
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface StatementBudget {
+
+	/**
+	 * Indicates no limit on the number of statements.
+	 */
+	int UNLIMITED = -1;
+
+	/**
+	 * The maximum number of JDBC statements an invocation is supposed to issue. Batched statements count as one.
+	 *
+	 * @return
+	 */
+	int value() default UNLIMITED;
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.function.SingletonSupplier;
+
+import com.acme.commerce.core.StatementStatistics.Statistics;
+
+/**
+ * Instruments all {@link DataSource}s to report to {@link StatementStatistics} and measures the JDBC statements issued
+ * per invocation of beans implementing interfaces annotated with {@link StatementBudget}. The measurements are exposed
+ * as metrics tagged with the interface and method invoked, budget violations are counted and logged, and rejected if
+ * {@link StatementBudgetProperties#isEnforceBudgets()} is set. Rejection happens on the statement exceeding the budget,
+ * so that a transaction running the invocation is rolled back. Statements issued on other threads are not attributed to
+ * the invocation (see {@link StatementStatistics}).
+ *
+ * @author Oliver Drotbohm
+ */
+@Configuration(proxyBeanMethods = false)
+class StatementBudgetConfiguration {
+
+	@Bean
+	static BeanPostProcessor statementBudgetBeanPostProcessor(ObjectProvider<MeterRegistry> registry,
+			ObjectProvider<StatementBudgetProperties> properties) {
+
+		var meters = SingletonSupplier.<MeterRegistry> of(() -> registry.getIfAvailable(CompositeMeterRegistry::new));
+		var enforce = SingletonSupplier.of(() -> properties.getObject().isEnforceBudgets());
+
+		return new BeanPostProcessor() {
+
+			/*
+			 * (non-Javadoc)
+			 * @see org.springframework.beans.factory.config.BeanPostProcessor#postProcessAfterInitialization(java.lang.Object, java.lang.String)
+			 */
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+				if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+					return new StatementCountingDataSource(dataSource);
+				}
+
+				var api = getBudgetedInterface(bean.getClass());
+
+				if (api == null) {
+					return bean;
+				}
+
+				var interceptor = new StatementBudgetInterceptor(api, meters, enforce);
+
+				if (bean instanceof Advised advised && !advised.isFrozen()) {
+					advised.addAdvice(0, interceptor);
+					return bean;
+				}
+
+				var factory = new ProxyFactory(bean);
+				factory.addInterface(api);
+				factory.addAdvice(interceptor);
+
+				return factory.getProxy(bean.getClass().getClassLoader());
+			}
+		};
+	}
+
+	@Nullable
+	private static Class<?> getBudgetedInterface(Class<?> type) {
+
+		for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+			if (AnnotationUtils.findAnnotation(candidate, StatementBudget.class) != null) {
+				return candidate;
+			}
+		}
+
+		return null;
+	}
+
+	@Slf4j
+	private static class StatementBudgetInterceptor implements MethodInterceptor {
+
+		private final Class<?> api;
+		private final StatementBudget defaultBudget;
+		private final Supplier<MeterRegistry> registry;
+		private final Supplier<Boolean> enforce;
+		private final Map<Method, MethodMeters> meters;
+
+		StatementBudgetInterceptor(Class<?> api, Supplier<MeterRegistry> registry, Supplier<Boolean> enforce) {
+
+			this.api = api;
+			this.defaultBudget = AnnotationUtils.findAnnotation(api, StatementBudget.class);
+			this.registry = registry;
+			this.enforce = enforce;
+			this.meters = new ConcurrentHashMap<>();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+		 */
+		@Nullable
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+
+			var method = invocation.getMethod();
+
+			if (ReflectionUtils.isObjectMethod(method)) {
+				return invocation.proceed();
+			}
+
+			var meters = this.meters.computeIfAbsent(method, this::createMeters);
+			var enforced = enforce.get() && meters.budget != StatementBudget.UNLIMITED;
+
+			// Rejects the exceeding statement itself, i.e. inside the transaction, so that it is rolled back
+			var frame = enforced //
+					? StatementStatistics.open(meters.budget,
+							it -> new StatementBudgetExceededException(method, meters.budget, it))
+					: StatementStatistics.open();
+			Object result;
+
+			try {
+				result = invocation.proceed();
+			} finally {
+
+				var statistics = StatementStatistics.close(frame);
+
+				meters.record(statistics);
+
+				if (meters.isExceededBy(statistics)) {
+					meters.violations.increment();
+				}
+			}
+
+			var statistics = frame.toStatistics();
+
+			if (meters.isExceededBy(statistics)) {
+
+				var exception = new StatementBudgetExceededException(method, meters.budget, statistics);
+
+				// Only reached if the invoked code swallowed the rejection, the transaction has completed already
+				if (enforced) {
+					throw exception;
+				}
+
+				log.warn(exception.getMessage());
+			}
+
+			return result;
+		}
+
+		private MethodMeters createMeters(Method method) {
+
+			var annotation = AnnotatedElementUtils.findMergedAnnotation(method, StatementBudget.class);
+			var budget = annotation != null ? annotation.value() : defaultBudget.value();
+
+			return new MethodMeters(api.getSimpleName(), method.getName(), budget, registry.get());
+		}
+	}
+
+	/**
+	 * The pre-registered meters for a single method.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	private static class MethodMeters {
+
+		private final int budget;
+		private final DistributionSummary statements, rows;
+		private final Timer time;
+		private final Counter violations;
+
+		MethodMeters(String type, String method, int budget, MeterRegistry registry) {
+
+			this.budget = budget;
+
+			this.statements = DistributionSummary.builder("acme.jdbc.statements") //
+					.description("JDBC statements issued per invocation") //
+					.tags("type", type, "method", method) //
+					.register(registry);
+
+			this.rows = DistributionSummary.builder("acme.jdbc.rows") //
+					.description("Rows fetched per invocation") //
+					.tags("type", type, "method", method) //
+					.register(registry);
+
+			this.time = Timer.builder("acme.jdbc.time") //
+					.description("Time spent executing JDBC statements per invocation") //
+					.tags("type", type, "method", method) //
+					.register(registry);
+
+			this.violations = Counter.builder("acme.jdbc.statement-budget.violations") //
+					.description("Invocations exceeding their statement budget") //
+					.tags("type", type, "method", method) //
+					.register(registry);
+		}
+
+		boolean isExceededBy(Statistics statistics) {
+			return budget != StatementBudget.UNLIMITED && statistics.statements() > budget;
+		}
+
+		void record(Statistics statistics) {
+
+			statements.record(statistics.statements());
+			rows.record(statistics.rows());
+			time.record(statistics.time());
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.lang.reflect.Method;
+
+import com.acme.commerce.core.StatementStatistics.Statistics;
+
+/**
+ * Exception being thrown if an invocation exceeds its {@link StatementBudget} and budgets are enforced. As it is thrown
+ * by the statement exceeding the budget, it might surface wrapped into a
+ * {@link org.springframework.dao.DataAccessException} by the persistence exception translation.
+ *
+ * @author Oliver Drotbohm
+ */
+public class StatementBudgetExceededException extends IllegalStateException {
+
+	private static final long serialVersionUID = 4781936501624883307L;
+
+	StatementBudgetExceededException(Method method, int budget, Statistics statistics) {
+		super("%s.%s(…) issued %s statements but is limited to %s!".formatted(method.getDeclaringClass().getSimpleName(),
+				method.getName(), statistics.statements(), budget));
+	}
+}
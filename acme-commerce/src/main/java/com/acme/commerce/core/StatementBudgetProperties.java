@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import lombok.Value;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties to configure the handling of {@link StatementBudget}s. Declare {@code acme.commerce.jdbc.…} in application
+ * properties to tweak settings.
+ *
+ * @author Oliver Drotbohm
+ */
+@Value
+@ConfigurationProperties("acme.commerce.jdbc")
+class StatementBudgetProperties {
+
+	/**
+	 * Whether to reject invocations exceeding their {@link StatementBudget} with a
+	 * {@link StatementBudgetExceededException}, thrown by the first statement exceeding the budget so that the
+	 * transaction is rolled back. Violations are only logged and counted otherwise.
+	 */
+	private boolean enforceBudgets;
+
+	StatementBudgetProperties(boolean enforceBudgets) {
+		this.enforceBudgets = enforceBudgets;
+	}
+}
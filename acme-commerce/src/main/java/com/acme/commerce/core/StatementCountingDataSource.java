@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * A {@link DataSource} reporting all statements executed and rows fetched through the {@link Connection}s it hands out
+ * to {@link StatementStatistics}. Executing a batch counts as a single statement.
+ *
+ * @author Oliver Drotbohm
+ */
+class StatementCountingDataSource extends DelegatingDataSource {
+
+	StatementCountingDataSource(DataSource delegate) {
+		super(delegate);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.jdbc.datasource.DelegatingDataSource#getConnection()
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		return proxy(Connection.class, super.getConnection(), ConnectionHandler::new);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.jdbc.datasource.DelegatingDataSource#getConnection(java.lang.String, java.lang.String)
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return proxy(Connection.class, super.getConnection(username, password), ConnectionHandler::new);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, T target, Function<Object, InvocationHandler> handler) {
+		return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+				handler.apply(target));
+	}
+
+	/**
+	 * Invokes the given method on the given target. Implements {@link Object#equals(Object)} and
+	 * {@link Object#hashCode()} based on the proxy's identity, as Hibernate keeps track of the statements and result sets
+	 * it obtained in hash-based collections.
+	 */
+	private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+
+		switch (method.getName()) {
+			case "equals":
+				if (method.getParameterCount() == 1) {
+					return proxy == args[0];
+				}
+				break;
+			case "hashCode":
+				if (method.getParameterCount() == 0) {
+					return System.identityHashCode(proxy);
+				}
+				break;
+			default:
+		}
+
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException o_O) {
+			throw o_O.getTargetException();
+		}
+	}
+
+	private record ConnectionHandler(Object target) implements InvocationHandler {
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			var result = StatementCountingDataSource.invoke(proxy, target, method, args);
+
+			if (result instanceof CallableStatement statement) {
+				return proxy(CallableStatement.class, statement, StatementHandler::new);
+			} else if (result instanceof PreparedStatement statement) {
+				return proxy(PreparedStatement.class, statement, StatementHandler::new);
+			} else if (result instanceof Statement statement) {
+				return proxy(Statement.class, statement, StatementHandler::new);
+			}
+
+			return result;
+		}
+	}
+
+	private record StatementHandler(Object target) implements InvocationHandler {
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			Object result;
+
+			if (method.getName().startsWith("execute")) {
+
+				var start = System.nanoTime();
+
+				try {
+					result = StatementCountingDataSource.invoke(proxy, target, method, args);
+				} finally {
+					StatementStatistics.statementExecuted(System.nanoTime() - start);
+				}
+
+				StatementStatistics.verifyBudgets();
+
+			} else {
+				result = StatementCountingDataSource.invoke(proxy, target, method, args);
+			}
+
+			return result instanceof ResultSet resultSet //
+					? proxy(ResultSet.class, resultSet, ResultSetHandler::new)
+					: result;
+		}
+	}
+
+	private record ResultSetHandler(Object target) implements InvocationHandler {
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			var result = StatementCountingDataSource.invoke(proxy, target, method, args);
+
+			if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+				StatementStatistics.rowFetched();
+			}
+
+			return result;
+		}
+	}
+}
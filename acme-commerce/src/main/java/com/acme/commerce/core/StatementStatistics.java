@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Keeps track of the JDBC statements executed, the rows fetched and the time spent executing statements on the current
+ * thread. Measurements can be nested, in which case an outer measurement includes the statements of all inner ones.
+ * Statements are only counted if the application's {@link javax.sql.DataSource} is instrumented accordingly, which is
+ * the case for all {@link javax.sql.DataSource} beans.
+ * <p>
+ * As measurements are bound to the current thread, statements issued on other threads are not included, even if they
+ * are caused by the measured code. That is the case for work fanned out to all shards by
+ * {@code OrderShards.onAllShards(…)} if sharding is enabled and for asynchronous event listeners.
+ *
+ * @author Oliver Drotbohm
+ * @see StatementBudget
+ */
+public final class StatementStatistics {
+
+	private static final ThreadLocal<ArrayDeque<Frame>> FRAMES = new ThreadLocal<>();
+
+	private StatementStatistics() {}
+
+	/**
+	 * Executes the given {@link Runnable} and returns the JDBC statistics caused by it on the current thread.
+	 *
+	 * @param runnable must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public static Statistics measure(Runnable runnable) {
+
+		Assert.notNull(runnable, "Runnable must not be null!");
+
+		var frame = open();
+
+		try {
+			runnable.run();
+		} finally {
+			close(frame);
+		}
+
+		return frame.toStatistics();
+	}
+
+	static Frame open() {
+		return open(new Frame(StatementBudget.UNLIMITED, null));
+	}
+
+	/**
+	 * Opens a new measurement rejecting the statement exceeding the given budget with the exception produced by the given
+	 * {@link Function}. As the exception is thrown while executing the statement, a surrounding transaction is rolled
+	 * back.
+	 *
+	 * @param budget the maximum number of statements.
+	 * @param rejection must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static Frame open(int budget, Function<Statistics, ? extends RuntimeException> rejection) {
+
+		Assert.notNull(rejection, "Rejection must not be null!");
+
+		return open(new Frame(budget, rejection));
+	}
+
+	private static Frame open(Frame frame) {
+
+		var frames = FRAMES.get();
+
+		if (frames == null) {
+			frames = new ArrayDeque<>();
+			FRAMES.set(frames);
+		}
+
+		frames.push(frame);
+
+		return frame;
+	}
+
+	static Statistics close(Frame frame) {
+
+		var frames = FRAMES.get();
+
+		if (frames == null) {
+			return frame.toStatistics();
+		}
+
+		frames.remove(frame);
+
+		if (frames.isEmpty()) {
+			FRAMES.remove();
+		}
+
+		return frame.toStatistics();
+	}
+
+	static void statementExecuted(long nanos) {
+
+		var frames = FRAMES.get();
+
+		if (frames == null) {
+			return;
+		}
+
+		for (Frame frame : frames) {
+			frame.statements++;
+			frame.nanos += nanos;
+		}
+	}
+
+	/**
+	 * Rejects the statement just executed if it exceeds the budget of any of the current measurements. Only rejects the
+	 * first statement exceeding the budget of a measurement, so that cleanup after the rejection is not interfered with.
+	 */
+	static void verifyBudgets() {
+
+		var frames = FRAMES.get();
+
+		if (frames == null) {
+			return;
+		}
+
+		for (Frame frame : frames) {
+
+			if (frame.rejection != null && !frame.rejected && frame.statements > frame.budget) {
+
+				frame.rejected = true;
+
+				throw frame.rejection.apply(frame.toStatistics());
+			}
+		}
+	}
+
+	static void rowFetched() {
+
+		var frames = FRAMES.get();
+
+		if (frames == null) {
+			return;
+		}
+
+		for (Frame frame : frames) {
+			frame.rows++;
+		}
+	}
+
+	/**
+	 * The JDBC statistics of a measurement.
+	 *
+	 * @param statements the number of statements executed, batches counting as one.
+	 * @param rows the number of rows fetched from result sets.
+	 * @param time the time spent executing statements.
+	 * @author Oliver Drotbohm
+	 */
+	public record Statistics(long statements, long rows, Duration time) {}
+
+	static class Frame {
+
+		private final int budget;
+		private final @Nullable Function<Statistics, ? extends RuntimeException> rejection;
+
+		private long statements, rows, nanos;
+		private boolean rejected;
+
+		private Frame(int budget, @Nullable Function<Statistics, ? extends RuntimeException> rejection) {
+
+			this.budget = budget;
+			this.rejection = rejection;
+		}
+
+		Statistics toStatistics() {
+			return new Statistics(statements, rows, Duration.ofNanos(nanos));
+		}
+	}
+}
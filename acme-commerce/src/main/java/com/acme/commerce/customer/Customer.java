@@ -15,6 +15,7 @@
  */
 package com.acme.commerce.customer;
 
+import jakarta.persistence.EntityListeners;
 import lombok.Getter;
 
 import java.util.UUID;
@@ -24,6 +25,7 @@ import org.jmolecules.ddd.types.Identifier;
 
 import com.acme.commerce.customer.Customer.CustomerIdentifier;
 
+@EntityListeners(CustomerResolver.CacheInvalidator.class)
 public class Customer implements AggregateRoot<Customer, CustomerIdentifier> {
 
 	private final @Getter CustomerIdentifier id;
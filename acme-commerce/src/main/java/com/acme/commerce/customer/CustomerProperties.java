@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.customer;
+
+import lombok.Value;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+
+/**
+ * Properties to configure the customer module. Declare {@code acme.commerce.customer.…} in application properties to tweak
+ * settings.
+ *
+ * @author Oliver Drotbohm
+ */
+@Value
+@ConfigurationProperties("acme.commerce.customer")
+class CustomerProperties {
+
+	private static final int DEFAULT_RESOLVER_CACHE_SIZE = 10_000;
+	private static final int DEFAULT_STREAM_FETCH_SIZE = 500;
+	private static final int DEFAULT_STREAM_CHUNK_SIZE = 1_000;
+
+	/**
+	 * The maximum number of {@link Customer}s the {@link CustomerResolver} keeps in its cache.
+	 */
+	private int resolverCacheSize;
+
+	/**
+	 * The number of rows the JDBC driver is supposed to fetch per round trip when streaming {@link Customer}s through
+	 * {@link CustomerStreams}.
+	 */
+	private int streamFetchSize;
+
+	/**
+	 * The number of {@link Customer}s after which {@link CustomerStreams} detaches all {@link Customer}s handed out so
+	 * far to keep the persistence context from growing.
+	 */
+	private int streamChunkSize;
+
+	CustomerProperties(@Nullable Integer resolverCacheSize, @Nullable Integer streamFetchSize,
+			@Nullable Integer streamChunkSize) {
+
+		this.resolverCacheSize = resolverCacheSize == null ? DEFAULT_RESOLVER_CACHE_SIZE : resolverCacheSize;
+		this.streamFetchSize = streamFetchSize == null ? DEFAULT_STREAM_FETCH_SIZE : streamFetchSize;
+		this.streamChunkSize = streamChunkSize == null ? DEFAULT_STREAM_CHUNK_SIZE : streamChunkSize;
+	}
+}
@@ -30,7 +30,8 @@ public interface CustomerRepository
 		extends CrudRepository<Customer, CustomerIdentifier>, AssociationResolver<Customer, CustomerIdentifier> {
 
 	/**
-	 * Re-declared {@link CrudRepository#findAll()} to return a {@link Streamable} instead of {@link Iterable}.
+	 * Re-declared {@link CrudRepository#findAll()} to return a {@link Streamable} instead of {@link Iterable}. Loads all
+	 * {@link Customer}s into memory, use {@link CustomerStreams} to process large numbers of them.
 	 */
 	@Override
 	Streamable<Customer> findAll();
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.customer;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.acme.commerce.core.BatchAssociationResolver;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+
+/**
+ * Resolves associations to {@link Customer}s in bulk through the {@link CustomerRepository} and caches them. Use this
+ * to render lists of aggregates referring to {@link Customer}s instead of resolving them one by one.
+ *
+ * @author Oliver Drotbohm
+ */
+@Component
+public class CustomerResolver extends BatchAssociationResolver<Customer, CustomerIdentifier> {
+
+	CustomerResolver(CustomerRepository customers, CustomerProperties properties) {
+		super(customers, properties.getResolverCacheSize());
+	}
+
+	/**
+	 * JPA entity listener evicting {@link Customer}s from the cache whenever they are changed. Instantiated by Hibernate
+	 * through the Spring container. As the callbacks are invoked on flush, the eviction is repeated once the transaction
+	 * completed (see {@link BatchAssociationResolver#evict(org.jmolecules.ddd.types.Identifier)}).
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	@RequiredArgsConstructor
+	static class CacheInvalidator {
+
+		private final ObjectProvider<CustomerResolver> resolver;
+
+		@PostPersist
+		@PostUpdate
+		@PostRemove
+		void evict(Customer customer) {
+			resolver.ifAvailable(it -> it.evict(customer.getId()));
+		}
+	}
+}
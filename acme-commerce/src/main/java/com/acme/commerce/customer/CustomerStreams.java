@@ -0,0 +1,205 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.customer;
+
+import jakarta.persistence.EntityManager;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Streams {@link Customer}s from a database cursor instead of loading all of them into memory like
+ * {@link CustomerRepository#findAll()} does. {@link Customer}s are fetched in batches of
+ * {@link CustomerProperties#getStreamFetchSize()} and detached in chunks of
+ * {@link CustomerProperties#getStreamChunkSize()}, so that memory consumption is independent of the number of
+ * {@link Customer}s. Every stream runs in a read-only transaction of its own. The {@link Customer}s handed out must not
+ * be modified.
+ * <p>
+ * To process {@link Customer}s concurrently, the identifier space can be split into disjoint {@link Partition}s that
+ * can be processed on different threads via {@link #forEachInParallel(int, Consumer)} or on different nodes via
+ * {@link #forEach(Partition, Consumer)}.
+ *
+ * @author Oliver Drotbohm
+ */
+@Component
+public class CustomerStreams {
+
+	private final EntityManager em;
+	private final TransactionTemplate transactions;
+	private final CustomerProperties properties;
+
+	CustomerStreams(EntityManager em, PlatformTransactionManager transactionManager, CustomerProperties properties) {
+
+		this.em = em;
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.transactions.setReadOnly(true);
+		this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.properties = properties;
+	}
+
+	/**
+	 * Hands all {@link Customer}s to the given {@link Consumer}.
+	 *
+	 * @param consumer must not be {@literal null}.
+	 */
+	public void forEach(Consumer<Customer> consumer) {
+		forEach(Partition.ALL, consumer);
+	}
+
+	/**
+	 * Hands all {@link Customer}s within the given {@link Partition} to the given {@link Consumer}.
+	 *
+	 * @param partition must not be {@literal null}.
+	 * @param consumer must not be {@literal null}.
+	 */
+	public void forEach(Partition partition, Consumer<Customer> consumer) {
+
+		Assert.notNull(partition, "Partition must not be null!");
+		Assert.notNull(consumer, "Consumer must not be null!");
+
+		transactions.executeWithoutResult(__ -> {
+
+			var query = em.createQuery("select c from Customer c where c.id.id >= :from"
+					+ (partition.to() == null ? "" : " and c.id.id < :to"), Customer.class)
+					.setParameter("from", partition.from())
+					.setHint(HibernateHints.HINT_FETCH_SIZE, properties.getStreamFetchSize())
+					.setHint(HibernateHints.HINT_READ_ONLY, true);
+
+			if (partition.to() != null) {
+				query.setParameter("to", partition.to());
+			}
+
+			var chunkSize = properties.getStreamChunkSize();
+
+			try (var customers = query.getResultStream()) {
+
+				var iterator = customers.iterator();
+
+				for (int i = 1; iterator.hasNext(); i++) {
+
+					consumer.accept(iterator.next());
+
+					if (i % chunkSize == 0) {
+						em.clear();
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Hands all {@link Customer}s to the given {@link Consumer} processing the given number of {@link Partition}s
+	 * concurrently. The {@link Consumer} has to be thread-safe.
+	 *
+	 * @param partitions must be greater than zero.
+	 * @param consumer must not be {@literal null}.
+	 */
+	public void forEachInParallel(int partitions, Consumer<Customer> consumer) {
+
+		Assert.isTrue(partitions > 0, "Number of partitions must be greater than zero!");
+		Assert.notNull(consumer, "Consumer must not be null!");
+
+		var executor = Executors.newFixedThreadPool(
+				Math.min(partitions, Runtime.getRuntime().availableProcessors()));
+
+		try {
+
+			var futures = new ArrayList<Future<?>>(partitions);
+
+			for (Partition partition : Partition.split(partitions)) {
+				futures.add(executor.submit(() -> forEach(partition, consumer)));
+			}
+
+			for (Future<?> future : futures) {
+				future.get();
+			}
+
+		} catch (InterruptedException o_O) {
+
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while streaming customers!", o_O);
+
+		} catch (ExecutionException o_O) {
+
+			if (o_O.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+
+			throw new IllegalStateException("Failed to stream customers!", o_O.getCause());
+
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * A range of {@link Customer} identifiers. Ranges are based on the unsigned value of the identifiers' UUIDs, which
+	 * is the order databases compare UUIDs in.
+	 *
+	 * @param from the inclusive lower bound, must not be {@literal null}.
+	 * @param to the exclusive upper bound, {@literal null} for no upper bound.
+	 * @author Oliver Drotbohm
+	 */
+	public record Partition(UUID from, @Nullable UUID to) {
+
+		static final Partition ALL = new Partition(new UUID(0, 0), null);
+
+		private static final BigInteger RANGE = BigInteger.ONE.shiftLeft(64);
+
+		public Partition {
+			Assert.notNull(from, "Lower bound must not be null!");
+		}
+
+		/**
+		 * Splits the identifier space into the given number of disjoint {@link Partition}s of equal size.
+		 *
+		 * @param count must be greater than zero.
+		 * @return will never be {@literal null}.
+		 */
+		public static List<Partition> split(int count) {
+
+			Assert.isTrue(count > 0, "Number of partitions must be greater than zero!");
+
+			var result = new ArrayList<Partition>(count);
+			var lower = new UUID(0, 0);
+
+			for (int i = 1; i <= count; i++) {
+
+				var upper = i == count ? null : new UUID(RANGE.multiply(BigInteger.valueOf(i)) //
+						.divide(BigInteger.valueOf(count)).longValue(), 0);
+
+				result.add(new Partition(lower, upper));
+				lower = upper;
+			}
+
+			return result;
+		}
+	}
+}
@@ -15,16 +15,22 @@
  */
 package com.acme.commerce.inventory;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.jmolecules.ddd.types.Association;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.util.Streamable;
 
 import com.acme.commerce.catalog.Product;
 import com.acme.commerce.catalog.Product.ProductIdentifier;
 import com.acme.commerce.core.Quantity;
+import com.acme.commerce.core.StatementBudget;
 import com.acme.commerce.inventory.InventoryItem.InventoryItemIdentifier;
 
 /**
@@ -47,6 +53,7 @@ import com.acme.commerce.inventory.InventoryItem.InventoryItemIdentifier;
  *
  * @author Oliver Drotbohm
  */
+@StatementBudget
 public interface Inventory extends CrudRepository<InventoryItem, InventoryItemIdentifier> {
 
 	/**
@@ -62,10 +69,11 @@ public interface Inventory extends CrudRepository<InventoryItem, InventoryItemId
 
 	/**
 	 * Returns all {@link UniqueInventoryItem}s that are out of stock (i.e. the {@link Quantity}'s amount is equal or less
-	 * than zero).
+	 * than zero). The items are loaded read-only and changes to them will not be flushed.
 	 *
 	 * @return will never be {@literal null}.
 	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
 	@Query("select i from #{#entityName} i where i.quantity.amount <= 0")
 	Streamable<InventoryItem> findItemsOutOfStock();
 
@@ -82,6 +90,23 @@ public interface Inventory extends CrudRepository<InventoryItem, InventoryItemId
 	@Query("select i from #{#entityName} i where i.productAssociation = ?1")
 	Optional<InventoryItem> findByProductIdentifier(Association<Product, ProductIdentifier> association);
 
+	/**
+	 * Returns all {@link InventoryItem}s for the given {@link ProductIdentifier}s using a single query.
+	 *
+	 * @param productIdentifiers must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@StatementBudget(1)
+	default Streamable<InventoryItem> findByProductIdentifiers(Collection<ProductIdentifier> productIdentifiers) {
+
+		return findByProductAssociations(productIdentifiers.stream() //
+				.map(it -> Association.<Product, ProductIdentifier> forId(it)) //
+				.toList());
+	}
+
+	@Query("select i from #{#entityName} i where i.productAssociation in ?1")
+	Streamable<InventoryItem> findByProductAssociations(Collection<Association<Product, ProductIdentifier>> associations);
+
 	/**
 	 * Returns the {@link InventoryItem} for the given {@link Product}.
 	 *
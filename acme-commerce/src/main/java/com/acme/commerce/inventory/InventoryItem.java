@@ -16,6 +16,7 @@
 package com.acme.commerce.inventory;
 
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Version;
 import lombok.Getter;
 
 import java.util.UUID;
@@ -29,6 +30,7 @@ import org.springframework.util.Assert;
 
 import com.acme.commerce.catalog.Product;
 import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.Identifiers;
 import com.acme.commerce.core.Quantity;
 import com.acme.commerce.inventory.InventoryEvents.QuantityReduced;
 import com.acme.commerce.inventory.InventoryItem.InventoryItemIdentifier;
@@ -44,12 +46,14 @@ public class InventoryItem extends AbstractAggregateRoot<InventoryItem>
 		implements AggregateRoot<InventoryItem, InventoryItemIdentifier> {
 
 	private final InventoryItemIdentifier inventoryItemIdentifier = new InventoryItemIdentifier(
-			UUID.randomUUID());
+			Identifiers.next());
 
 	private final Association<Product, ProductIdentifier> productAssociation;
 
 	private Quantity quantity;
 
+	private @Version Long version;
+
 	/**
 	 * Creates a new {@link InventoryItem} for the given {@link Product} and {@link Quantity}.
 	 *
@@ -19,14 +19,16 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.function.Supplier;
+
 import org.jmolecules.event.annotation.DomainEventHandler;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationListener;
-import org.springframework.context.event.EventListener;
 import org.springframework.modulith.ApplicationModuleListener;
 import org.springframework.modulith.moments.DayHasPassed;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.acme.commerce.catalog.Product;
 import com.acme.commerce.catalog.Product.ProductAdded;
@@ -60,6 +62,7 @@ class InventoryListeners {
 
 		private final @NonNull InventoryProperties configuration;
 		private final @NonNull Inventory inventory;
+		private final @NonNull InventoryMetrics metrics;
 
 		@DomainEventHandler
 		StockShort on(QuantityReduced event) {
@@ -69,7 +72,7 @@ class InventoryListeners {
 
 			return item.hasSufficientQuantity(threshold)
 					? null
-					: StockShort.of(item, threshold);
+					: metrics.recordStockShort(StockShort.of(item, threshold));
 		}
 
 		@Async
@@ -93,17 +96,19 @@ class InventoryListeners {
 	static class CatalogListeners {
 
 		private final Inventory inventory;
+		private final InventoryMetrics metrics;
 
 		@ApplicationModuleListener
 		void on(ProductAdded event) {
-			inventory.save(new InventoryItem(event.id(), Quantity.NONE));
+			metrics.timeProductAdded(() -> inventory.save(new InventoryItem(event.id(), Quantity.NONE)));
 		}
 	}
 
 	/**
 	 * {@link ApplicationListener} for {@link OrderCompleted} events to verify that sufficient amounts of the
 	 * {@link Product} the {@link LineItem}s contained in the {@link Order} point to are available in the
-	 * {@link UniqueInventory}.
+	 * {@link UniqueInventory}. The listeners are not transactional themselves, as {@link InventoryManagement} runs its
+	 * operations in transactions it retries in case of concurrent stock changes.
 	 *
 	 * @author Oliver Drotbohm
 	 */
@@ -114,28 +119,47 @@ class InventoryListeners {
 
 		private final @NonNull InventoryManagement management;
 		private final @NonNull OrderManagement orders;
+		private final @NonNull InventoryMetrics metrics;
 
 		/**
 		 * Invokes {@link UniqueInventory} checks for all {@link LineItem} of the {@link Order} in the given
-		 * {@link OrderCompleted} event.
+		 * {@link OrderCompleted} event. Uses the snapshot of the line items contained in the event if available and only
+		 * falls back to looking up the {@link Order} if not.
 		 *
 		 * @param event must not be {@literal null}.
 		 * @throws OrderCompletionFailure in case any of the {@link LineItem} items contained in the order and supported by
 		 *           the configured {@link LineItemFilter} is not available in sufficient quantity.
 		 */
-		@ApplicationModuleListener
+		@Async
+		@TransactionalEventListener
 		public void on(OrderCompleted event) throws OrderCompletionFailure {
-			management.verifyAndUpdate(orders.get(event.orderId()).orElseThrow());
+
+			Supplier<Order> order = () -> orders.get(event.orderId()).orElseThrow();
+
+			metrics.timeOrderCompleted(() -> event.snapshot().ifPresentOrElse( //
+					it -> management.verifyAndUpdate(it, order), //
+					() -> management.verifyAndUpdate(order.get())));
 		}
 
 		/**
-		 * Rolls back the stock decreases handled for {@link OrderCompleted} events.
+		 * Rolls back the stock decreases handled for {@link OrderCompleted} events. Runs asynchronously after the
+		 * cancellation has been committed so that mass cancellations do not block the order module. Decides on the status
+		 * the {@link Order} was in before the cancellation, as the {@link Order} looked up at this point is already
+		 * canceled. Uses the snapshot of the line items contained in the event if available.
 		 *
 		 * @param event must not be {@literal null}.
 		 */
-		@EventListener
+		@Async
+		@TransactionalEventListener
 		public void on(OrderCanceled event) {
-			management.cancelOrder(orders.get(event.orderId()).orElseThrow());
+
+			if (!event.wasCompleted()) {
+				return;
+			}
+
+			metrics.timeOrderCanceled(() -> event.snapshot().ifPresentOrElse( //
+					management::restore, //
+					() -> management.restore(orders.get(event.orderId()).orElseThrow())));
 		}
 	}
 }
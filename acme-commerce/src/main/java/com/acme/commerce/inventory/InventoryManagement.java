@@ -20,19 +20,29 @@ import static com.acme.commerce.order.OrderCompletionReport.OrderLineCompletion.
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
-import java.util.stream.Stream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
-import org.springframework.data.util.Optionals;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.OptimisticLockingRetries;
+import com.acme.commerce.core.Quantity;
 import com.acme.commerce.order.LineItem;
 import com.acme.commerce.order.Order;
 import com.acme.commerce.order.OrderCompletionFailure;
 import com.acme.commerce.order.OrderCompletionReport;
 import com.acme.commerce.order.OrderCompletionReport.OrderLineCompletion;
+import com.acme.commerce.order.OrderEvents.LineItemSnapshot;
 
 /**
+ * Verifies and updates the stock for completed and canceled {@link Order}s. All operations are executed in a
+ * transaction of their own and retried in case of concurrent modifications of the {@link InventoryItem}s involved.
+ *
  * @author Oliver Drotbohm
  */
 @Service
@@ -43,26 +53,112 @@ class InventoryManagement {
 	private static final String NO_INVENTORY_ITEM = "No inventory item with given product indentifier found in inventory. Have you initialized your inventory? Do you need to re-stock it?";
 
 	private final @NonNull Inventory inventory;
+	private final @NonNull OptimisticLockingRetries retries;
+	private final @NonNull InventoryMetrics metrics;
 
 	public OrderCompletionReport verifyAndUpdate(Order order) {
+		return metrics.timeVerification(() -> verifyAndUpdateOrderLines(order));
+	}
+
+	/**
+	 * Verifies and updates the stock for the given {@link LineItemSnapshot}s of a completed {@link Order} without
+	 * looking up the {@link Order} itself. Only if the stock is insufficient, the {@link Order} is obtained from the
+	 * given {@link Supplier} to produce a detailed {@link OrderCompletionReport}.
+	 *
+	 * @param lineItems must not be {@literal null}.
+	 * @param order must not be {@literal null}.
+	 * @throws OrderCompletionFailure in case any of the line items is not available in sufficient quantity.
+	 */
+	public void verifyAndUpdate(List<LineItemSnapshot> lineItems, Supplier<Order> order) {
+
+		Assert.notNull(lineItems, "Line items must not be null!");
+		Assert.notNull(order, "Order supplier must not be null!");
+
+		metrics.timeVerification(() -> {
+
+			var quantities = lineItems.stream() //
+					.collect(Collectors.toMap(LineItemSnapshot::productId, LineItemSnapshot::toQuantity, Quantity::add));
+
+			retries.run(() -> {
+
+				var items = inventory.findByProductIdentifiers(quantities.keySet()).toList();
+
+				var sufficient = items.size() == quantities.size() && items.stream() //
+						.allMatch(it -> it.hasSufficientQuantity(quantities.get(it.getProductAssociation().getId())));
+
+				if (!sufficient) {
+					verifyAndUpdateOrderLines(order.get());
+					return;
+				}
+
+				inventory.saveAll(items.stream() //
+						.map(it -> it.decreaseQuantity(quantities.get(it.getProductAssociation().getId()))) //
+						.toList());
+			});
+
+			return null;
+		});
+	}
+
+	/**
+	 * Restores the stock for all {@link LineItem}s of the given canceled {@link Order}. Callers have to make sure the
+	 * {@link Order} had been completed before, as the stock has only been decreased in that case.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @see #restore(List)
+	 */
+	public void restore(Order order) {
+
+		Assert.notNull(order, "Order must not be null!");
+
+		restore(order.getOrderLines().stream() //
+				.collect(Collectors.toMap(it -> it.getProductIdentifier().getId(), LineItem::getQuantity, Quantity::add)));
+	}
+
+	/**
+	 * Restores the stock for the given {@link LineItemSnapshot}s of a canceled {@link Order} without looking up the
+	 * {@link Order} itself. Looks up all affected {@link InventoryItem}s in a single query and writes them back as a
+	 * single JDBC batch of updates.
+	 *
+	 * @param lineItems must not be {@literal null}.
+	 */
+	public void restore(List<LineItemSnapshot> lineItems) {
 
-		var collect = order.getOrderLines() //
-				.map(this::verify)//
-				.toList();
+		Assert.notNull(lineItems, "Line items must not be null!");
 
-		return OrderCompletionReport.forCompletions(order, collect) //
-				.onError(OrderCompletionFailure::new);
+		restore(lineItems.stream() //
+				.collect(Collectors.toMap(LineItemSnapshot::productId, LineItemSnapshot::toQuantity, Quantity::add)));
 	}
 
-	public void cancelOrder(Order order) {
+	private void restore(Map<ProductIdentifier, Quantity> quantities) {
 
-		if (!order.isCompleted()) {
+		if (quantities.isEmpty()) {
 			return;
 		}
 
-		order.getOrderLines() //
-				.flatMap(this::updateStockFor) //
-				.forEach(inventory::save);
+		retries.run(() -> {
+
+			var items = inventory.findByProductIdentifiers(quantities.keySet()).toList();
+
+			assertInventoryItemsFound(quantities, items);
+
+			inventory.saveAll(items.stream() //
+					.map(it -> it.increaseQuantity(quantities.get(it.getProductAssociation().getId()))) //
+					.toList());
+		});
+	}
+
+	private OrderCompletionReport verifyAndUpdateOrderLines(Order order) {
+
+		return retries.execute(() -> {
+
+			var collect = order.getOrderLines() //
+					.map(this::verify)//
+					.toList();
+
+			return OrderCompletionReport.forCompletions(order, collect) //
+					.onError(OrderCompletionFailure::new);
+		});
 	}
 
 	/**
@@ -79,7 +175,7 @@ class InventoryManagement {
 		var item = inventory.findByProductIdentifier(identifier.getId());
 
 		return item.map(it -> verifyAndUpdateUnique(it, orderLine)) //
-				.orElseGet(() -> assertAtLeastOneExists(orderLine));
+				.orElseGet(() -> error(orderLine, NO_INVENTORY_ITEM));
 	}
 
 	/**
@@ -94,31 +190,17 @@ class InventoryManagement {
 				.onSuccess(it -> inventory.save(item.decreaseQuantity(it.getQuantity())));
 	}
 
-	/**
-	 * Creates a new {@link OrderLineCompletion} verifying that at least one {@link MultiInventoryItem} exists.
-	 *
-	 * @param orderLine must not be {@literal null}.
-	 * @return
-	 */
-	private OrderLineCompletion assertAtLeastOneExists(LineItem orderLine) {
-
-		var items = inventory.findByProductIdentifier(orderLine.getProductIdentifier().getId());
+	private static void assertInventoryItemsFound(Map<ProductIdentifier, Quantity> quantities,
+			Iterable<InventoryItem> items) {
 
-		return items.isEmpty() ? error(orderLine, NO_INVENTORY_ITEM) : skipped(orderLine);
-	}
+		var missing = new HashSet<>(quantities.keySet());
 
-	private Stream<InventoryItem> updateStockFor(LineItem orderLine) {
+		items.forEach(it -> missing.remove(it.getProductAssociation().getId()));
 
-		var productIdentifier = orderLine.getProductIdentifier();
-		var item = inventory.findByProductIdentifier(productIdentifier.getId())
-				.map(it -> it.increaseQuantity(orderLine.getQuantity()));
-
-		if (!item.isPresent() && inventory.findByProductIdentifier(productIdentifier.getId()).isEmpty()) {
+		if (!missing.isEmpty()) {
 			throw new IllegalArgumentException(
-					"Couldn't find InventoryItem for product %s!".formatted(productIdentifier));
+					"Couldn't find InventoryItem for product %s!".formatted(missing.iterator().next()));
 		}
-
-		return Optionals.toStream(item);
 	}
 
 	private static OrderLineCompletion hasSufficientQuantity(InventoryItem item, LineItem orderLine) {
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.acme.commerce.inventory.InventoryEvents.StockShort;
+import com.acme.commerce.order.OrderCompletionFailure;
+
+/**
+ * Always-on metrics for stock verifications and the inventory's event listeners. All meters are registered up front so
+ * that recording a measurement neither looks up meters nor allocates tags.
+ *
+ * @author Oliver Drotbohm
+ */
+@Component
+class InventoryMetrics {
+
+	static final String VERIFICATIONS = "acme.inventory.verifications";
+	static final String STOCK_CHECK_FAILURES = "acme.inventory.stock-check.failures";
+	static final String STOCK_SHORTAGES = "acme.inventory.stock-shortages";
+	static final String LISTENERS = "acme.inventory.listeners";
+
+	private final Timer verifications, orderCompleted, orderCanceled, productAdded;
+	private final Counter stockCheckFailures, stockShortages;
+
+	InventoryMetrics(MeterRegistry registry) {
+
+		Assert.notNull(registry, "MeterRegistry must not be null!");
+
+		this.verifications = Timer.builder(VERIFICATIONS) //
+				.description("Latency of stock verifications and updates for completed orders") //
+				.publishPercentileHistogram() //
+				.register(registry);
+
+		this.orderCompleted = listenerTimer("order-completed", registry);
+		this.orderCanceled = listenerTimer("order-canceled", registry);
+		this.productAdded = listenerTimer("product-added", registry);
+
+		this.stockCheckFailures = Counter.builder(STOCK_CHECK_FAILURES) //
+				.description("Number of orders rejected due to insufficient or missing stock") //
+				.register(registry);
+
+		this.stockShortages = Counter.builder(STOCK_SHORTAGES) //
+				.description("Number of StockShort events published") //
+				.register(registry);
+	}
+
+	/**
+	 * Times the given stock verification and counts {@link OrderCompletionFailure}s as failed stock checks.
+	 *
+	 * @param verification must not be {@literal null}.
+	 * @return the result of the given verification.
+	 */
+	<T> T timeVerification(Supplier<T> verification) {
+
+		var start = System.nanoTime();
+
+		try {
+			return verification.get();
+		} catch (OrderCompletionFailure o_O) {
+			stockCheckFailures.increment();
+			throw o_O;
+		} finally {
+			verifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	void timeOrderCompleted(Runnable listener) {
+		time(orderCompleted, listener);
+	}
+
+	void timeOrderCanceled(Runnable listener) {
+		time(orderCanceled, listener);
+	}
+
+	void timeProductAdded(Runnable listener) {
+		time(productAdded, listener);
+	}
+
+	/**
+	 * Records the given {@link StockShort} if present.
+	 *
+	 * @param event can be {@literal null}.
+	 * @return the given event.
+	 */
+	StockShort recordStockShort(StockShort event) {
+
+		if (event != null) {
+			stockShortages.increment();
+		}
+
+		return event;
+	}
+
+	private static void time(Timer timer, Runnable callback) {
+
+		var start = System.nanoTime();
+
+		try {
+			callback.run();
+		} finally {
+			timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private static Timer listenerTimer(String event, MeterRegistry registry) {
+
+		return Timer.builder(LISTENERS) //
+				.description("Latency of the inventory's event listeners") //
+				.tag("event", event) //
+				.publishPercentileHistogram() //
+				.register(registry);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import io.micrometer.tracing.exporter.FinishedSpan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link TraceExporter} appending one line per span to a local file. Stand-in for a real tracing backend during
+ * development and in tests.
+ *
+ * @author Oliver Drotbohm
+ */
+@Slf4j
+class FileTraceExporter implements TraceExporter {
+
+	private final Path output;
+
+	FileTraceExporter(Path output) {
+
+		Assert.notNull(output, "Output file must not be null!");
+
+		this.output = output;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.observability.TraceExporter#export(java.util.List)
+	 */
+	@Override
+	public void export(List<FinishedSpan> spans) {
+
+		var builder = new StringBuilder(spans.size() * 128);
+
+		for (FinishedSpan span : spans) {
+			builder.append(format(span)).append(System.lineSeparator());
+		}
+
+		try {
+
+			synchronized (this) {
+				Files.writeString(output, builder, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+						StandardOpenOption.APPEND);
+			}
+
+		} catch (IOException o_O) {
+			log.warn("Failed to export trace to {}!", output, o_O);
+		}
+	}
+
+	private static String format(FinishedSpan span) {
+
+		var duration = Duration.between(span.getStartTimestamp(), span.getEndTimestamp());
+		var error = span.getError();
+
+		return "%s %s %s %s %dms%s %s".formatted(span.getTraceId(), span.getSpanId(), span.getParentId(),
+				span.getName(), duration.toMillis(), error == null ? "" : " error=" + error.getClass().getSimpleName(),
+				span.getTags());
+	}
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.EventPublicationRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Live statistics per application module: invocations of the module's API, latency percentiles, event publications
+ * and their completions as well as the backlog of incomplete event publications. Latencies are tracked in Micrometer's
+ * rolling percentile windows, rates in {@link RollingCounter}s, so that recording never blocks. As determining the
+ * backlog requires reading all incomplete publications from the {@link EventPublicationRegistry}, it is only refreshed
+ * every ten seconds and might thus lag behind slightly.
+ *
+ * @author Oliver Drotbohm
+ */
+@Component
+class ModuleStatistics {
+
+	static final String BASE_PACKAGE = "com.acme.commerce";
+	static final List<String> MODULES = List.of("catalog", "customer", "inventory", "order");
+
+	private static final int RATE_WINDOW_SECONDS = 60;
+	private static final Duration PERCENTILE_WINDOW = Duration.ofMinutes(1);
+	private static final Duration BACKLOG_REFRESH_INTERVAL = Duration.ofSeconds(10);
+
+	private final Map<String, Module> modules;
+	private final ObjectProvider<EventPublicationRegistry> publications;
+	private final LongSupplier clock;
+
+	private @Nullable Map<String, Long> backlog;
+	private long backlogRefreshed;
+
+	@Autowired
+	ModuleStatistics(MeterRegistry registry, ObjectProvider<EventPublicationRegistry> publications) {
+		this(registry, publications, System::currentTimeMillis);
+	}
+
+	ModuleStatistics(MeterRegistry registry, ObjectProvider<EventPublicationRegistry> publications, LongSupplier clock) {
+
+		Assert.notNull(registry, "MeterRegistry must not be null!");
+		Assert.notNull(publications, "EventPublicationRegistry must not be null!");
+		Assert.notNull(clock, "Clock must not be null!");
+
+		var modules = new LinkedHashMap<String, Module>();
+
+		MODULES.forEach(it -> modules.put(it, new Module(it, registry)));
+
+		this.modules = modules;
+		this.publications = publications;
+		this.clock = clock;
+	}
+
+	/**
+	 * Returns the name of the application module the given type belongs to.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return the module name or {@literal null} if the type does not belong to any of the {@link #MODULES}.
+	 */
+	@Nullable
+	String getModule(Class<?> type) {
+
+		var packageName = type.getPackageName();
+
+		for (String module : MODULES) {
+
+			var modulePackage = BASE_PACKAGE + "." + module;
+
+			if (packageName.equals(modulePackage) || packageName.startsWith(modulePackage + ".")) {
+				return module;
+			}
+		}
+
+		return null;
+	}
+
+	void recordInvocation(String module, long nanos) {
+
+		var statistics = modules.get(module);
+
+		if (statistics != null) {
+			statistics.invocations.record(nanos, TimeUnit.NANOSECONDS);
+			statistics.invocationRate.increment();
+		}
+	}
+
+	void recordPublication(Object event) {
+
+		var statistics = getStatisticsFor(event);
+
+		if (statistics != null) {
+			statistics.published.increment();
+			statistics.publicationRate.increment();
+		}
+	}
+
+	void recordCompletion(Object event) {
+
+		var statistics = getStatisticsFor(event);
+
+		if (statistics != null) {
+			statistics.completed.increment();
+			statistics.completionRate.increment();
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the current statistics of all modules, keyed by module name.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	Map<String, ModuleSnapshot> getSnapshot() {
+
+		var backlog = getBacklog();
+		var result = new LinkedHashMap<String, ModuleSnapshot>();
+
+		modules.forEach((name, module) -> result.put(name, module.toSnapshot(backlog.getOrDefault(name, 0L))));
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of incomplete event publications per module, read from the {@link EventPublicationRegistry} at
+	 * most once per {@link #BACKLOG_REFRESH_INTERVAL}.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	private synchronized Map<String, Long> getBacklog() {
+
+		var now = clock.getAsLong();
+
+		if (backlog != null && now - backlogRefreshed < BACKLOG_REFRESH_INTERVAL.toMillis()) {
+			return backlog;
+		}
+
+		var backlog = new LinkedHashMap<String, Long>();
+		var registry = publications.getIfAvailable();
+
+		if (registry != null) {
+			for (EventPublication publication : registry.findIncompletePublications()) {
+
+				var module = getModule(publication.getEvent().getClass());
+
+				if (module != null) {
+					backlog.merge(module, 1L, Long::sum);
+				}
+			}
+		}
+
+		this.backlog = backlog;
+		this.backlogRefreshed = now;
+
+		return backlog;
+	}
+
+	@Nullable
+	private Module getStatisticsFor(Object event) {
+
+		var module = getModule(event.getClass());
+
+		return module == null ? null : modules.get(module);
+	}
+
+	/**
+	 * Statistics of a single application module at a given point in time.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	record ModuleSnapshot(long invocations, double invocationsPerSecond, double p50Millis, double p99Millis,
+			long eventsPublished, double eventsPublishedPerSecond, long eventsCompleted, double eventsCompletedPerSecond,
+			long incompletePublications) {}
+
+	private static class Module {
+
+		private final Timer invocations;
+		private final Counter published, completed;
+		private final RollingCounter invocationRate, publicationRate, completionRate;
+
+		Module(String name, MeterRegistry registry) {
+
+			this.invocations = Timer.builder("acme.modules.invocations") //
+					.description("Invocations of an application module's API") //
+					.tag("module", name) //
+					.publishPercentiles(0.5, 0.99) //
+					.distributionStatisticExpiry(PERCENTILE_WINDOW) //
+					.distributionStatisticBufferLength(3) //
+					.register(registry);
+
+			this.published = Counter.builder("acme.modules.events.published") //
+					.description("Events published by an application module") //
+					.tag("module", name) //
+					.register(registry);
+
+			this.completed = Counter.builder("acme.modules.events.completed") //
+					.description("Event publications of an application module completed by their listeners") //
+					.tag("module", name) //
+					.register(registry);
+
+			this.invocationRate = new RollingCounter(RATE_WINDOW_SECONDS);
+			this.publicationRate = new RollingCounter(RATE_WINDOW_SECONDS);
+			this.completionRate = new RollingCounter(RATE_WINDOW_SECONDS);
+		}
+
+		ModuleSnapshot toSnapshot(long backlog) {
+
+			var p50 = 0d;
+			var p99 = 0d;
+
+			for (var percentile : invocations.takeSnapshot().percentileValues()) {
+
+				if (percentile.percentile() == 0.5) {
+					p50 = percentile.value(TimeUnit.MILLISECONDS);
+				} else if (percentile.percentile() == 0.99) {
+					p99 = percentile.value(TimeUnit.MILLISECONDS);
+				}
+			}
+
+			return new ModuleSnapshot(invocations.count(), invocationRate.getRatePerSecond(), p50, p99,
+					(long) published.count(), publicationRate.getRatePerSecond(), (long) completed.count(),
+					completionRate.getRatePerSecond(), backlog);
+		}
+	}
+}
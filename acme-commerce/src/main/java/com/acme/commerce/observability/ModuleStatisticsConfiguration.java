@@ -0,0 +1,176 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+import org.springframework.modulith.events.EventPublicationRegistry;
+import org.springframework.util.function.SingletonSupplier;
+
+import com.acme.commerce.catalog.Catalog;
+import com.acme.commerce.customer.CustomerRepository;
+import com.acme.commerce.inventory.Inventory;
+import com.acme.commerce.order.OrderManagement;
+
+/**
+ * Decorates the public APIs of the application modules and the {@link EventPublicationRegistry} to feed
+ * {@link ModuleStatistics} if the {@link ModuleStatisticsEndpoint} is available.
+ *
+ * @author Oliver Drotbohm
+ */
+@Configuration(proxyBeanMethods = false)
+class ModuleStatisticsConfiguration {
+
+	/**
+	 * The API types of the application modules whose invocations are to be recorded.
+	 */
+	private static final Map<Class<?>, String> MODULE_APIS = Map.of( //
+			Catalog.class, "catalog", //
+			CustomerRepository.class, "customer", //
+			Inventory.class, "inventory", //
+			OrderManagement.class, "order");
+
+	/**
+	 * Only decorates the module APIs if the {@link ModuleStatisticsEndpoint} is exposed, so that the statistics nobody can
+	 * look at do not add to every invocation.
+	 */
+	@Bean
+	@ConditionalOnAvailableEndpoint(endpoint = ModuleStatisticsEndpoint.class)
+	static BeanPostProcessor moduleStatisticsBeanPostProcessor(ObjectProvider<ModuleStatistics> statistics) {
+
+		var supplier = SingletonSupplier.of(statistics::getObject);
+
+		return new BeanPostProcessor() {
+
+			/*
+			 * (non-Javadoc)
+			 * @see org.springframework.beans.factory.config.BeanPostProcessor#postProcessAfterInitialization(java.lang.Object, java.lang.String)
+			 */
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+				if (bean instanceof EventPublicationRegistry) {
+					return decorate(bean, EventPublicationRegistry.class, new EventPublicationInterceptor(supplier));
+				}
+
+				for (var entry : MODULE_APIS.entrySet()) {
+					if (entry.getKey().isInstance(bean)) {
+						return decorate(bean, entry.getKey(), new ModuleInvocationInterceptor(entry.getValue(), supplier));
+					}
+				}
+
+				return bean;
+			}
+		};
+	}
+
+	/**
+	 * Adds the given {@link MethodInterceptor} as outermost advice to the given bean if it is already proxied or
+	 * creates a JDK proxy for the given API type.
+	 */
+	private static Object decorate(Object bean, Class<?> api, MethodInterceptor interceptor) {
+
+		if (bean instanceof Advised advised && !advised.isFrozen()) {
+			advised.addAdvice(0, interceptor);
+			return bean;
+		}
+
+		var factory = new ProxyFactory(bean);
+		factory.addInterface(api);
+		factory.addAdvice(interceptor);
+
+		return factory.getProxy(bean.getClass().getClassLoader());
+	}
+
+	@RequiredArgsConstructor
+	private static class ModuleInvocationInterceptor implements MethodInterceptor {
+
+		private final String module;
+		private final Supplier<ModuleStatistics> statistics;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+		 */
+		@Nullable
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+
+			if (AopUtils.isToStringMethod(invocation.getMethod()) || AopUtils.isEqualsMethod(invocation.getMethod())
+					|| AopUtils.isHashCodeMethod(invocation.getMethod())) {
+				return invocation.proceed();
+			}
+
+			var start = System.nanoTime();
+
+			try {
+				return invocation.proceed();
+			} finally {
+				statistics.get().recordInvocation(module, System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**
+	 * Records events stored in the {@link EventPublicationRegistry} as published and every publication marked as
+	 * completed as completion. Only events with transactional listeners are registered with it.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	@RequiredArgsConstructor
+	private static class EventPublicationInterceptor implements MethodInterceptor {
+
+		private final Supplier<ModuleStatistics> statistics;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+		 */
+		@Nullable
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+
+			var result = invocation.proceed();
+			var arguments = invocation.getArguments();
+
+			if (arguments.length == 0 || arguments[0] == null) {
+				return result;
+			}
+
+			switch (invocation.getMethod().getName()) {
+				case "store" -> statistics.get().recordPublication(arguments[0]);
+				case "markCompleted" -> statistics.get().recordCompletion(arguments[0]);
+				default -> {}
+			}
+
+			return result;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.acme.commerce.observability.ModuleStatistics.ModuleSnapshot;
+
+/**
+ * Actuator endpoint exposing the live {@link ModuleStatistics} per application module.
+ *
+ * @author Oliver Drotbohm
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "modulestats")
+class ModuleStatisticsEndpoint {
+
+	private final ModuleStatistics statistics;
+
+	@ReadOperation
+	Map<String, ModuleSnapshot> modules() {
+		return statistics.getSnapshot();
+	}
+}
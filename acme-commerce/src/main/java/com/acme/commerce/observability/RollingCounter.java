@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * A lock-free counter keeping one bucket per second for a rolling window of the given number of seconds. Buckets are
+ * reused in a ring and reset lazily once their second has passed. Increments racing with such a reset might get lost,
+ * which is acceptable for the approximate rates the counter is used for.
+ *
+ * @author Oliver Drotbohm
+ */
+class RollingCounter {
+
+	private final int window;
+	private final LongSupplier clock;
+	private final AtomicLongArray counts, seconds;
+
+	RollingCounter(int window) {
+		this(window, System::currentTimeMillis);
+	}
+
+	RollingCounter(int window, LongSupplier clock) {
+
+		Assert.isTrue(window > 0, "Window must be positive!");
+		Assert.notNull(clock, "Clock must not be null!");
+
+		this.window = window;
+		this.clock = clock;
+		this.counts = new AtomicLongArray(window);
+		this.seconds = new AtomicLongArray(window);
+	}
+
+	void increment() {
+
+		var now = clock.getAsLong() / 1000;
+		var index = (int) (now % window);
+		var second = seconds.get(index);
+
+		if (second != now && seconds.compareAndSet(index, second, now)) {
+			counts.set(index, 0);
+		}
+
+		counts.incrementAndGet(index);
+	}
+
+	/**
+	 * Returns the average number of increments per second over the window.
+	 *
+	 * @return
+	 */
+	double getRatePerSecond() {
+
+		var now = clock.getAsLong() / 1000;
+		var sum = 0L;
+
+		for (int i = 0; i < window; i++) {
+			if (now - seconds.get(i) < window) {
+				sum += counts.get(i);
+			}
+		}
+
+		return (double) sum / window;
+	}
+}
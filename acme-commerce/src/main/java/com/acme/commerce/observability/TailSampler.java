@@ -0,0 +1,246 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.exporter.FinishedSpan;
+import io.micrometer.tracing.exporter.SpanExportingPredicate;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import com.acme.commerce.order.OrderCompletionFailure;
+
+/**
+ * A {@link SpanExportingPredicate} that vetoes the direct export of all spans and buffers them per trace instead. Once
+ * the local root span of a trace finishes, the trace is kept if any of its spans was slower than the configured
+ * threshold, failed with an {@link OrderCompletionFailure} or refers to a flagged product. Kept traces are handed to
+ * the configured {@link TraceExporter}, all others are dropped. Spans finishing after the decision for their trace was
+ * made, e.g. the ones of asynchronous event listeners, are exported right away for kept traces. For dropped traces, the
+ * spans are retained so that a late span that is slow or failed can still upgrade the decision and have the entire
+ * trace exported.
+ * <p>
+ * Both the undecided traces and the decisions made are kept in bounded, insertion-ordered buffers. If the buffer of
+ * undecided traces overflows, the oldest trace is decided on with the spans seen so far.
+ *
+ * @author Oliver Drotbohm
+ */
+class TailSampler implements SpanExportingPredicate {
+
+	private static final String ERROR_TYPE = OrderCompletionFailure.class.getSimpleName();
+
+	private final TailSamplingProperties properties;
+	private final TraceExporter exporter;
+	private final LinkedHashMap<String, TraceBuffer> traces;
+	private final LinkedHashMap<String, TraceBuffer> decisions;
+
+	TailSampler(TailSamplingProperties properties, TraceExporter exporter) {
+
+		Assert.notNull(properties, "TailSamplingProperties must not be null!");
+		Assert.notNull(exporter, "TraceExporter must not be null!");
+
+		this.properties = properties;
+		this.exporter = exporter;
+		this.traces = new LinkedHashMap<>();
+		this.decisions = new LinkedHashMap<>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, TraceBuffer> eldest) {
+				return size() > properties.getMaxTraces();
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see io.micrometer.tracing.exporter.SpanExportingPredicate#isExported(io.micrometer.tracing.exporter.FinishedSpan)
+	 */
+	@Override
+	public boolean isExported(FinishedSpan span) {
+
+		var toExport = new ArrayList<List<FinishedSpan>>(2);
+		var traceId = span.getTraceId();
+		var interesting = isInteresting(span);
+
+		synchronized (this) {
+
+			var decided = decisions.get(traceId);
+
+			if (decided != null) {
+
+				if (decided.keep) {
+					toExport.add(List.of(span));
+				} else {
+
+					decided.add(span, interesting);
+
+					// A late slow or failed span upgrades a dropped trace
+					if (decided.keep) {
+						toExport.add(decided.drain());
+					}
+				}
+
+			} else {
+
+				var buffer = traces.computeIfAbsent(traceId, __ -> new TraceBuffer(properties.getMaxSpansPerTrace()));
+				buffer.add(span, interesting);
+
+				if (isLocalRoot(span)) {
+					traces.remove(traceId);
+					decide(traceId, buffer, toExport);
+				}
+
+				if (traces.size() > properties.getMaxTraces()) {
+
+					var eldest = traces.entrySet().iterator();
+					var entry = eldest.next();
+					eldest.remove();
+
+					decide(entry.getKey(), entry.getValue(), toExport);
+				}
+			}
+		}
+
+		toExport.forEach(exporter::export);
+
+		return false;
+	}
+
+	private void decide(String traceId, TraceBuffer buffer, List<List<FinishedSpan>> toExport) {
+
+		decisions.put(traceId, buffer);
+
+		if (buffer.keep) {
+			toExport.add(buffer.drain());
+		}
+	}
+
+	private boolean isInteresting(FinishedSpan span) {
+		return isSlow(span) || hasFailed(span) || refersToFlaggedProduct(span);
+	}
+
+	private boolean isSlow(FinishedSpan span) {
+
+		return Duration.between(span.getStartTimestamp(), span.getEndTimestamp()) //
+				.compareTo(properties.getLatencyThreshold()) >= 0;
+	}
+
+	private static boolean hasFailed(FinishedSpan span) {
+
+		for (Throwable error = span.getError(); error != null; error = error.getCause()) {
+			if (error instanceof OrderCompletionFailure) {
+				return true;
+			}
+		}
+
+		var tags = span.getTags();
+
+		return ERROR_TYPE.equals(tags.get("exception")) || ERROR_TYPE.equals(tags.get("error"));
+	}
+
+	private boolean refersToFlaggedProduct(FinishedSpan span) {
+
+		var flagged = properties.getFlaggedProducts();
+
+		if (flagged.isEmpty()) {
+			return false;
+		}
+
+		for (String value : span.getTags().values()) {
+			if (containsAny(value, flagged)) {
+				return true;
+			}
+		}
+
+		for (Map.Entry<Long, String> event : span.getEvents()) {
+			if (containsAny(event.getValue(), flagged)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean containsAny(String value, Iterable<String> candidates) {
+
+		for (String candidate : candidates) {
+			if (value.contains(candidate)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isLocalRoot(FinishedSpan span) {
+
+		var parentId = span.getParentId();
+
+		return span.getKind() == Span.Kind.SERVER //
+				|| !StringUtils.hasText(parentId) //
+				|| parentId.chars().allMatch(it -> it == '0');
+	}
+
+	/**
+	 * The spans of a single trace that has not been decided on yet or was decided to be dropped, limited to the given
+	 * number of most recent ones.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	private static class TraceBuffer {
+
+		private final ArrayDeque<FinishedSpan> spans;
+		private final int capacity;
+		private boolean keep;
+
+		TraceBuffer(int capacity) {
+			this.spans = new ArrayDeque<>(Math.min(capacity, 16));
+			this.capacity = capacity;
+		}
+
+		void add(FinishedSpan span, boolean interesting) {
+
+			if (spans.size() == capacity) {
+				spans.pollFirst();
+			}
+
+			spans.addLast(span);
+			keep |= interesting;
+		}
+
+		/**
+		 * Returns all spans buffered and releases them, as they are not needed anymore once exported.
+		 *
+		 * @return will never be {@literal null}.
+		 */
+		List<FinishedSpan> drain() {
+
+			var result = List.copyOf(spans);
+			spans.clear();
+
+			return result;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link TailSampler} as {@link io.micrometer.tracing.exporter.SpanExportingPredicate} to be picked up by
+ * Spring Boot's tracing auto-configuration if {@code acme.commerce.tracing.tail-sampling.enabled} is set. Kept traces
+ * are written to a local file unless the OpenTelemetry bridge is present. The insight profile then adds
+ * {@code OpenTelemetryTraceExporterConfiguration} to hand them to the OpenTelemetry exporters (e.g. Zipkin) instead.
+ *
+ * @author Oliver Drotbohm
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "acme.commerce.tracing.tail-sampling.enabled", havingValue = "true")
+class TailSamplingConfiguration {
+
+	static final String OTEL_BRIDGE = "io.micrometer.tracing.otel.bridge.OtelFinishedSpan";
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnMissingClass(OTEL_BRIDGE)
+	TraceExporter fileTraceExporter(TailSamplingProperties properties) {
+		return new FileTraceExporter(properties.getOutput());
+	}
+
+	@Bean
+	TailSampler tailSampler(TailSamplingProperties properties, TraceExporter exporter) {
+		return new TailSampler(properties, exporter);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+
+/**
+ * Properties to configure the tail-based sampling of traces. Declare {@code acme.commerce.tracing.tail-sampling.…} in
+ * application properties to tweak settings.
+ *
+ * @author Oliver Drotbohm
+ */
+@Value
+@ConfigurationProperties("acme.commerce.tracing.tail-sampling")
+class TailSamplingProperties {
+
+	private static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofMillis(500);
+	private static final int DEFAULT_MAX_TRACES = 1024;
+	private static final int DEFAULT_MAX_SPANS_PER_TRACE = 256;
+
+	/**
+	 * Whether to enable tail-based sampling. If enabled, no span is exported directly anymore but only as part of a trace
+	 * considered worth keeping.
+	 */
+	private boolean enabled;
+
+	/**
+	 * The duration from which on a span is considered slow and its trace kept.
+	 */
+	private Duration latencyThreshold;
+
+	/**
+	 * The maximum number of undecided traces to buffer. If exceeded, the oldest trace is decided on with the spans seen
+	 * so far.
+	 */
+	private int maxTraces;
+
+	/**
+	 * The maximum number of spans to buffer per trace. If exceeded, the oldest spans of the trace are dropped.
+	 */
+	private int maxSpansPerTrace;
+
+	/**
+	 * Product identifiers to always keep traces for if they appear in any span's tags or events.
+	 */
+	private Set<String> flaggedProducts;
+
+	/**
+	 * The file to write kept traces to if no OpenTelemetry span exporter (e.g. Zipkin) is available.
+	 */
+	private Path output;
+
+	TailSamplingProperties(boolean enabled, @Nullable Duration latencyThreshold, @Nullable Integer maxTraces,
+			@Nullable Integer maxSpansPerTrace, @Nullable Set<String> flaggedProducts, @Nullable Path output) {
+
+		this.enabled = enabled;
+		this.latencyThreshold = latencyThreshold == null ? DEFAULT_LATENCY_THRESHOLD : latencyThreshold;
+		this.maxTraces = maxTraces == null ? DEFAULT_MAX_TRACES : maxTraces;
+		this.maxSpansPerTrace = maxSpansPerTrace == null ? DEFAULT_MAX_SPANS_PER_TRACE : maxSpansPerTrace;
+		this.flaggedProducts = flaggedProducts == null ? Set.of() : Set.copyOf(flaggedProducts);
+		this.output = output == null ? Path.of(System.getProperty("java.io.tmpdir"), "acme-commerce-traces.log") : output;
+	}
+}
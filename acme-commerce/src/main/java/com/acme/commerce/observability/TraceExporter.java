@@ -0,0 +1,35 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import io.micrometer.tracing.exporter.FinishedSpan;
+
+import java.util.List;
+
+/**
+ * Receives the spans of traces that {@link TailSampler} decided to keep.
+ *
+ * @author Oliver Drotbohm
+ */
+interface TraceExporter {
+
+	/**
+	 * Exports the given spans, all belonging to the same trace.
+	 *
+	 * @param spans will never be {@literal null} or empty.
+	 */
+	void export(List<FinishedSpan> spans);
+}
@@ -17,28 +17,75 @@ package com.acme.commerce.order;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.support.PropertyComparator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.util.Streamable;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import com.acme.commerce.catalog.Catalog;
+import com.acme.commerce.catalog.Product;
+import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.MetricMismatchException;
+import com.acme.commerce.core.OptimisticLockingRetries;
+import com.acme.commerce.core.Quantity;
 import com.acme.commerce.customer.Customer.CustomerIdentifier;
 import com.acme.commerce.order.Order.OrderIdentifier;
+import com.acme.commerce.order.OrderEvents.OrderCanceled;
+import com.acme.commerce.order.OrderEvents.OrderCompleted;
+import com.acme.commerce.order.OrderEvents.OrderPaid;
+import com.acme.commerce.order.OrderMetrics.TransitionOutcome;
+import com.acme.commerce.order.OrderTransitionReport.Outcome;
 
 /**
  * @author Oliver Drotbohm
  */
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 class DefaultOrderManagement implements OrderManagement {
 
+	private static final List<OrderStatus> CANCELABLE = List.of(OrderStatus.OPEN, OrderStatus.PAID,
+			OrderStatus.COMPLETED);
+
 	private final @NonNull OrderRepository orderRepository;
+	private final @NonNull OrderHistoryEntries history;
+	private final @NonNull Catalog catalog;
+	private final @NonNull OptimisticLockingRetries retries;
+	private final @NonNull OrderProperties properties;
+	private final @NonNull OrderMetrics metrics;
+	private final @NonNull OrderShards shards;
+	private final @NonNull OrderArchive archive;
+	private final @NonNull OrderJournal journal;
+	private final @NonNull ApplicationEventPublisher events;
 
 	/*
 	 * (non-Javadoc)
@@ -49,7 +96,58 @@ class DefaultOrderManagement implements OrderManagement {
 
 		Assert.notNull(order, "Order must be not null");
 
-		return orderRepository.save(order);
+		return shards.onShardOf(order.getCustomer().getId(), () -> {
+
+			var saved = orderRepository.save(order);
+
+			// Created upfront so that transitions only need to update the status
+			var entry = history.findById(saved.getId()) //
+					.map(it -> it.refresh(saved)) //
+					.orElseGet(() -> OrderHistoryEntry.of(saved));
+
+			history.save(entry);
+
+			return saved;
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.order.OrderManagement#createOrder(com.acme.commerce.customer.Customer.CustomerIdentifier, java.util.Map)
+	 */
+	@Override
+	public Order createOrder(CustomerIdentifier customer, Map<ProductIdentifier, Quantity> lineItems) {
+
+		Assert.notNull(customer, "CustomerIdentifier must not be null!");
+		Assert.notEmpty(lineItems, "Line items must not be null or empty!");
+
+		var products = new HashMap<ProductIdentifier, Product>(lineItems.size());
+
+		catalog.findAllById(lineItems.keySet()).forEach(it -> products.put(it.getId(), it));
+
+		if (products.size() != lineItems.size()) {
+
+			var missing = lineItems.keySet().stream() //
+					.filter(it -> !products.containsKey(it)) //
+					.toList();
+
+			throw new IllegalArgumentException("Couldn't find products %s!".formatted(missing));
+		}
+
+		var mismatches = lineItems.entrySet().stream() //
+				.filter(it -> !products.get(it.getKey()).supports(it.getValue())) //
+				.map(it -> "%s (%s)".formatted(products.get(it.getKey()).getName(), it.getValue())) //
+				.toList();
+
+		if (!mismatches.isEmpty()) {
+			throw new MetricMismatchException("Products do not support the quantities given: %s!".formatted(mismatches));
+		}
+
+		var order = new Order(customer);
+
+		lineItems.forEach((identifier, quantity) -> order.addOrderLine(products.get(identifier), quantity));
+
+		return save(order);
 	}
 
 	/*
@@ -61,7 +159,11 @@ class DefaultOrderManagement implements OrderManagement {
 
 		Assert.notNull(orderIdentifier, "orderIdentifier must not be null");
 
-		return orderRepository.findById(orderIdentifier);
+		// Not read-only, even on the pool threads of the fan-out, so that the lookup isn't routed to a lagging replica
+		return shards.onAllShards(() -> retries.execute(() -> journal.load(orderIdentifier))).stream() //
+				.flatMap(Optional::stream) //
+				.findFirst() //
+				.or(() -> archive.find(orderIdentifier));
 	}
 
 	/*
@@ -69,11 +171,13 @@ class DefaultOrderManagement implements OrderManagement {
 	 * @see org.salespointframework.order.OrderManagement#contains(org.salespointframework.order.OrderIdentifier)
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public boolean contains(OrderIdentifier orderIdentifier) {
 
 		Assert.notNull(orderIdentifier, "OrderIdentifier must not be null");
 
-		return orderRepository.existsById(orderIdentifier);
+		return shards.onAllShards(() -> orderRepository.existsById(orderIdentifier)).contains(true)
+				|| archive.find(orderIdentifier).isPresent();
 	}
 
 	/*
@@ -81,11 +185,16 @@ class DefaultOrderManagement implements OrderManagement {
 	 * @see org.salespointframework.order.OrderManagement#findBy(org.salespointframework.order.OrderStatus)
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Streamable<Order> findBy(OrderStatus orderStatus) {
 
 		Assert.notNull(orderStatus, "OrderStatus must not be null");
 
-		return orderRepository.findByOrderStatus(orderStatus);
+		var results = shards.onAllShards(() -> journal.findBy(orderStatus));
+
+		return results.size() == 1 //
+				? Streamable.of(results.get(0))
+				: Streamable.of(() -> results.stream().flatMap(List::stream));
 	}
 
 	/*
@@ -93,11 +202,47 @@ class DefaultOrderManagement implements OrderManagement {
 	 * @see org.salespointframework.order.OrderManagement#findBy(org.salespointframework.useraccount.UserAccount)
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Streamable<Order> findBy(CustomerIdentifier identifier) {
 
 		Assert.notNull(identifier, "CustomerIdentifier must not be null");
 
-		return orderRepository.findByCustomer(identifier);
+		var orders = shards.onShardOf(identifier,
+				() -> journal.replay(orderRepository.findByCustomer(identifier).toList()));
+
+		return merge(orders.stream(), archive.findBy(identifier));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.order.OrderManagement#findBy(java.time.LocalDateTime, java.time.LocalDateTime)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Streamable<Order> findBy(LocalDateTime from, LocalDateTime to) {
+
+		Assert.notNull(from, "From must not be null!");
+		Assert.notNull(to, "To must not be null!");
+
+		var orders = shards
+				.onAllShards(() -> journal.replay(orderRepository.findByDateCreatedBetween(from, to).toList()));
+
+		return merge(orders.stream().flatMap(List::stream), archive.findBy(from, to));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.order.OrderManagement#findHistory(com.acme.commerce.customer.Customer.CustomerIdentifier, int)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Streamable<OrderHistoryEntry> findHistory(CustomerIdentifier customer, int limit) {
+
+		Assert.notNull(customer, "CustomerIdentifier must not be null!");
+		Assert.isTrue(limit > 0, "Limit must be greater than zero!");
+
+		return shards.onShardOf(customer,
+				() -> history.findByCustomerOrderByDateCreatedDesc(customer, PageRequest.of(0, limit)));
 	}
 
 	/*
@@ -105,15 +250,22 @@ class DefaultOrderManagement implements OrderManagement {
 	 * @see org.salespointframework.order.OrderManagement#completeOrder(org.salespointframework.order.Order)
 	 */
 	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public void completeOrder(Order order) {
 
 		Assert.notNull(order, "Order must not be null!");
 
-		if (!order.isPaid()) {
-			throw new OrderCompletionFailure(order, "Order is not paid yet!");
+		var start = metrics.start();
+
+		try {
+			shards.onShardOf(order.getCustomer().getId(),
+					() -> retries.execute(() -> complete(reload(order))));
+		} catch (RuntimeException o_O) {
+			metrics.recordCompletion(start, TransitionOutcome.FAILURE);
+			throw o_O;
 		}
 
-		save(order.complete());
+		metrics.recordCompletion(start, order);
 	}
 
 	/*
@@ -121,17 +273,25 @@ class DefaultOrderManagement implements OrderManagement {
 	 * @see org.salespointframework.order.OrderManagement#payOrder(org.salespointframework.order.Order)
 	 */
 	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public boolean payOrder(Order order) {
 
 		Assert.notNull(order, "Order must not be null");
 
-		if (!order.isPaymentExpected()) {
-			return false;
-		}
+		var start = metrics.start();
+		var outcome = TransitionOutcome.FAILURE;
 
-		save(order.markPaid());
+		try {
 
-		return true;
+			var transitioned = shards.onShardOf(order.getCustomer().getId(),
+					() -> retries.execute(() -> pay(reload(order))));
+
+			outcome = TransitionOutcome.of(transitioned);
+
+			return transitioned;
+		} finally {
+			metrics.recordPayment(start, outcome);
+		}
 	}
 
 	/*
@@ -139,18 +299,188 @@ class DefaultOrderManagement implements OrderManagement {
 	 * @see org.salespointframework.order.OrderManagement#cancelOrder(org.salespointframework.order.Order, java.lang.String)
 	 */
 	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public boolean cancelOrder(Order order, String reason) {
 
 		Assert.notNull(order, "Order must not be null");
 
-		if (!order.isCanceled()) {
-			save(order.cancel(reason));
-			return true;
-		} else {
-			return false;
+		var start = metrics.start();
+		var outcome = TransitionOutcome.FAILURE;
+
+		try {
+
+			var transitioned = shards.onShardOf(order.getCustomer().getId(),
+					() -> retries.execute(() -> cancel(reload(order), reason)));
+
+			outcome = TransitionOutcome.of(transitioned);
+
+			return transitioned;
+		} finally {
+			metrics.recordCancellation(start, outcome);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.order.OrderManagement#payOrder(com.acme.commerce.order.Order.OrderIdentifier)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public boolean payOrder(OrderIdentifier orderIdentifier) {
+
+		Assert.notNull(orderIdentifier, "OrderIdentifier must not be null!");
+
+		var start = metrics.start();
+		var outcome = TransitionOutcome.FAILURE;
+
+		try {
+
+			var transitioned = transition(orderIdentifier, this::pay, () -> {
+
+				if (!updateStatus(orderIdentifier, Set.of(OrderStatus.OPEN), OrderStatus.PAID)) {
+					return false;
+				}
+
+				events.publishEvent(new OrderPaid(orderIdentifier));
+
+				return true;
+			});
+
+			outcome = TransitionOutcome.of(transitioned);
+
+			return transitioned;
+		} finally {
+			metrics.recordPayment(start, outcome);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.order.OrderManagement#completeOrder(com.acme.commerce.order.Order.OrderIdentifier)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public boolean completeOrder(OrderIdentifier orderIdentifier) {
+
+		Assert.notNull(orderIdentifier, "OrderIdentifier must not be null!");
+
+		var start = metrics.start();
+		var outcome = TransitionOutcome.FAILURE;
+
+		// Only available if the journal loads the order, so that its line items can be recorded
+		var completed = new AtomicReference<Order>();
+
+		try {
+
+			var transitioned = transition(orderIdentifier, it -> {
+
+				if (!it.isPaid() || !complete(it).isCompleted()) {
+					return false;
+				}
+
+				completed.set(it);
+
+				return true;
+			}, () -> {
+
+				if (!updateStatus(orderIdentifier, Set.of(OrderStatus.PAID), OrderStatus.COMPLETED)) {
+					return false;
+				}
+
+				events.publishEvent(new OrderCompleted(orderIdentifier));
+
+				return true;
+			});
+
+			outcome = TransitionOutcome.of(transitioned);
+
+			return transitioned;
+		} finally {
+
+			var order = completed.get();
+
+			if (outcome == TransitionOutcome.SUCCESS && order != null) {
+				metrics.recordCompletion(start, order);
+			} else {
+				metrics.recordCompletion(start, outcome);
+			}
 		}
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.order.OrderManagement#cancelOrder(com.acme.commerce.order.Order.OrderIdentifier, java.lang.String)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public boolean cancelOrder(OrderIdentifier orderIdentifier, String reason) {
+
+		Assert.notNull(orderIdentifier, "OrderIdentifier must not be null!");
+
+		var start = metrics.start();
+		var outcome = TransitionOutcome.FAILURE;
+
+		try {
+
+			var transitioned = transition(orderIdentifier, it -> cancel(it, reason), () -> {
+
+				// Listeners need to know the status the order was canceled in, the lock keeps it until the update
+				var previous = orderRepository.findOrderStatusForUpdateById(orderIdentifier) //
+						.filter(CANCELABLE::contains) //
+						.orElse(null);
+
+				if (previous == null || !updateStatus(orderIdentifier, Set.of(previous), OrderStatus.CANCELLED)) {
+					return false;
+				}
+
+				// Mirrors Order.cancel(…) publishing an OrderCompleted event for orders not completed before
+				if (previous != OrderStatus.COMPLETED) {
+					events.publishEvent(new OrderCompleted(orderIdentifier));
+				}
+
+				events.publishEvent(new OrderCanceled(orderIdentifier, reason, previous));
+
+				return true;
+			});
+
+			outcome = TransitionOutcome.of(transitioned);
+
+			return transitioned;
+		} finally {
+			metrics.recordCancellation(start, outcome);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.order.OrderManagement#payOrders(java.lang.Iterable)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public OrderTransitionReport payOrders(Iterable<OrderIdentifier> orderIdentifiers) {
+		return transitionInChunks(orderIdentifiers, Order::isPaymentExpected, Order::markPaid);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.order.OrderManagement#completeOrders(java.lang.Iterable)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public OrderTransitionReport completeOrders(Iterable<OrderIdentifier> orderIdentifiers) {
+		return transitionInChunks(orderIdentifiers, Order::isPaid, Order::complete);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.acme.commerce.order.OrderManagement#cancelOrders(java.lang.Iterable, java.lang.String)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public OrderTransitionReport cancelOrders(Iterable<OrderIdentifier> orderIdentifiers, String reason) {
+		return transitionInChunks(orderIdentifiers, it -> !it.isCanceled(), it -> it.cancel(reason));
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.salespointframework.order.OrderManagement#delete(org.salespointframework.order.Order)
@@ -159,9 +489,10 @@ class DefaultOrderManagement implements OrderManagement {
 
 		Assert.notNull(order, "Order must not be null!");
 
-		orderRepository.delete(order);
-
-		return order;
+		return shards.onShardOf(order.getCustomer().getId(), () -> {
+			orderRepository.delete(order);
+			return order;
+		});
 	}
 
 	/*
@@ -169,7 +500,249 @@ class DefaultOrderManagement implements OrderManagement {
 	 * @see org.salespointframework.order.OrderManagement#findAll(org.springframework.data.domain.Pageable)
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Order> findAll(Pageable pageable) {
-		return orderRepository.findAll(pageable);
+
+		Assert.notNull(pageable, "Pageable must not be null!");
+
+		if (!shards.isSharded()) {
+			return replay(orderRepository.findAll(pageable));
+		}
+
+		if (pageable.isUnpaged()) {
+
+			var content = shards.onAllShards(() -> replay(orderRepository.findAll(pageable)).getContent()).stream() //
+					.flatMap(List::stream) //
+					.toList();
+
+			return new PageImpl<>(content);
+		}
+
+		// Look up all orders up to the requested page on each shard and cut the page from the merged result
+		var window = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), pageable.getSort());
+		var pages = shards.onAllShards(() -> replay(orderRepository.findAll(window)));
+		var total = pages.stream().mapToLong(Page::getTotalElements).sum();
+		var content = pages.stream() //
+				.flatMap(it -> it.getContent().stream()) //
+				.sorted(toComparator(pageable.getSort())) //
+				.skip(pageable.getOffset()) //
+				.limit(pageable.getPageSize()) //
+				.toList();
+
+		return new PageImpl<>(content, pageable, total);
+	}
+
+	/**
+	 * Applies the given transition to all {@link Order}s with the given identifiers that satisfy the given
+	 * {@link Predicate}. Processes the identifiers in chunks of {@link OrderProperties#getBulkChunkSize()}, each of them
+	 * in a dedicated transaction.
+	 *
+	 * @param identifiers must not be {@literal null}.
+	 * @param applicable must not be {@literal null}.
+	 * @param transition must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	private OrderTransitionReport transitionInChunks(Iterable<OrderIdentifier> identifiers,
+			Predicate<Order> applicable, UnaryOperator<Order> transition) {
+
+		Assert.notNull(identifiers, "Order identifiers must not be null!");
+
+		var report = new OrderTransitionReport();
+		var chunkSize = properties.getBulkChunkSize();
+		var chunk = new ArrayList<OrderIdentifier>(chunkSize);
+
+		for (OrderIdentifier identifier : identifiers) {
+
+			chunk.add(identifier);
+
+			if (chunk.size() == chunkSize) {
+				transitionChunk(chunk, applicable, transition, report);
+				chunk.clear();
+			}
+		}
+
+		if (!chunk.isEmpty()) {
+			transitionChunk(chunk, applicable, transition, report);
+		}
+
+		return report;
+	}
+
+	/**
+	 * Applies the given transition to the {@link Order}s of the given chunk on all shards and registers the merged
+	 * outcomes with the given {@link OrderTransitionReport}. {@link Order}s not found on any shard are reported as
+	 * {@link Outcome#NOT_FOUND} unless the transition failed on one of the shards.
+	 */
+	private void transitionChunk(List<OrderIdentifier> chunk, Predicate<Order> applicable,
+			UnaryOperator<Order> transition, OrderTransitionReport report) {
+
+		var outcomes = new HashMap<OrderIdentifier, Outcome>();
+		var failed = false;
+
+		for (var result : shards.onAllShards(() -> tryTransition(chunk, applicable, transition))) {
+
+			if (result == null) {
+				failed = true;
+			} else {
+				outcomes.putAll(result);
+			}
+		}
+
+		var fallback = failed ? Outcome.FAILED : Outcome.NOT_FOUND;
+
+		chunk.forEach(it -> report.register(it, outcomes.getOrDefault(it, fallback)));
+	}
+
+	/**
+	 * Applies the given transition to all {@link Order}s of the given chunk that can be found.
+	 *
+	 * @return the outcomes for the {@link Order}s found or {@literal null} in case the transition failed.
+	 */
+	@Nullable
+	private Map<OrderIdentifier, Outcome> tryTransition(List<OrderIdentifier> chunk, Predicate<Order> applicable,
+			UnaryOperator<Order> transition) {
+
+		var outcomes = new HashMap<OrderIdentifier, Outcome>();
+
+		try {
+
+			retries.run(() -> {
+
+				var transitioned = new ArrayList<Order>();
+
+				outcomes.clear();
+
+				journal.load(chunk).forEach(it -> {
+
+					if (!applicable.test(it)) {
+						outcomes.put(it.getId(), Outcome.REJECTED);
+						return;
+					}
+
+					// Keeps a single order violating an invariant from aborting the entire bulk operation
+					try {
+						transitioned.add(transition.apply(it));
+						outcomes.put(it.getId(), Outcome.TRANSITIONED);
+					} catch (RuntimeException o_O) {
+						log.warn("Failed to transition order {}!", it.getId(), o_O);
+						outcomes.put(it.getId(), Outcome.FAILED);
+					}
+				});
+
+				journal.appendAll(transitioned);
+			});
+
+		} catch (DataAccessException | TransactionException o_O) {
+
+			log.warn("Failed to transition chunk of {} orders!", chunk.size(), o_O);
+
+			return null;
+		}
+
+		return outcomes;
+	}
+
+	/**
+	 * Executes the given conditional update on all shards, as the customer of the {@link Order} and thus its shard is
+	 * unknown. With the {@link OrderJournal} enabled, the {@link Order} rows don't reflect the current state, so that the
+	 * {@link Order} is loaded and the given transition is applied to it instead.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @param transition the transition to apply to a loaded {@link Order}, must not be {@literal null}.
+	 * @param update the conditional update, must not be {@literal null}.
+	 * @return whether the {@link Order} was transitioned.
+	 */
+	private boolean transition(OrderIdentifier identifier, Predicate<Order> transition, BooleanSupplier update) {
+
+		return shards.onAllShards(() -> retries.execute(() -> journal.isEnabled() //
+				? journal.load(identifier).filter(transition).isPresent()
+				: update.getAsBoolean())).contains(true);
+	}
+
+	private boolean updateStatus(OrderIdentifier identifier, Set<OrderStatus> sources, OrderStatus target) {
+		return orderRepository.updateStatus(identifier, sources, target) == 1;
+	}
+
+	private Order complete(Order order) {
+
+		if (!order.isPaid()) {
+			throw new OrderCompletionFailure(order, "Order is not paid yet!");
+		}
+
+		return journal.append(order.complete());
+	}
+
+	private boolean pay(Order order) {
+
+		if (!order.isPaymentExpected()) {
+			return false;
+		}
+
+		journal.append(order.markPaid());
+
+		return true;
+	}
+
+	private boolean cancel(Order order, String reason) {
+
+		if (order.isCanceled()) {
+			return false;
+		}
+
+		journal.append(order.cancel(reason));
+
+		return true;
+	}
+
+	/**
+	 * Looks up the current state of the given {@link Order} to transition it. Every attempt starts from a fresh instance
+	 * so that neither an outdated instance handed in by the caller causes a guaranteed optimistic locking failure nor
+	 * that instance is changed by an attempt that's rolled back. Costs no additional query, as merging the given
+	 * instance would have to look up the {@link Order}, too.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	private Order reload(Order order) {
+
+		return journal.load(order.getId())
+				.orElseThrow(() -> new IllegalArgumentException("Order %s not found!".formatted(order.getId())));
+	}
+
+	private Page<Order> replay(Page<Order> page) {
+
+		journal.replay(page.getContent());
+
+		return page;
+	}
+
+	/**
+	 * Merges the given {@link Order}s from the database with the given archived ones. Prefers the former in case an
+	 * {@link Order} is contained in both, e.g. as the transaction removing it from the database after archiving failed.
+	 */
+	private static Streamable<Order> merge(Stream<Order> orders, List<Order> archived) {
+
+		if (archived.isEmpty()) {
+			return Streamable.of(orders.toList());
+		}
+
+		var result = new LinkedHashMap<OrderIdentifier, Order>();
+
+		orders.forEach(it -> result.put(it.getId(), it));
+		archived.forEach(it -> result.putIfAbsent(it.getId(), it));
+
+		return Streamable.of(List.copyOf(result.values()));
+	}
+
+	private static Comparator<Order> toComparator(Sort sort) {
+
+		Comparator<Order> comparator = (left, right) -> 0;
+
+		for (Sort.Order order : sort) {
+			comparator = comparator.thenComparing(
+					new PropertyComparator<>(order.getProperty(), order.isIgnoreCase(), order.isAscending()));
+		}
+
+		return comparator;
 	}
 }
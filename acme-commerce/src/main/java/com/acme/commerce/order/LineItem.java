@@ -29,6 +29,7 @@ import org.springframework.util.Assert;
 
 import com.acme.commerce.catalog.Product;
 import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.Identifiers;
 import com.acme.commerce.core.MetricMismatchException;
 import com.acme.commerce.core.Quantity;
 import com.acme.commerce.order.LineItem.LineItemIdentifier;
@@ -49,7 +50,7 @@ import com.acme.commerce.order.LineItem.LineItemIdentifier;
 @Getter
 public class LineItem implements Entity<Order, LineItemIdentifier>, Priced {
 
-	private final LineItemIdentifier id = new LineItemIdentifier(UUID.randomUUID());
+	private final LineItemIdentifier id;
 	private final Association<Product, ProductIdentifier> productIdentifier;
 
 	private MonetaryAmount price;
@@ -71,12 +72,62 @@ public class LineItem implements Entity<Order, LineItemIdentifier>, Priced {
 			throw new MetricMismatchException("Product %s does not support quantity %s!".formatted(product, quantity));
 		}
 
+		this.id = new LineItemIdentifier(Identifiers.next());
 		this.productIdentifier = Association.forId(product.getId());
 		this.quantity = quantity;
 		this.price = product.getPrice().multiply(quantity.getAmount());
 		this.productName = product.getName();
 	}
 
+	/**
+	 * Restores a {@link LineItem} with the given state, e.g. from the {@link OrderArchive}.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @param product must not be {@literal null}.
+	 * @param productName must not be {@literal null}.
+	 * @param price must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 */
+	LineItem(LineItemIdentifier id, ProductIdentifier product, String productName, MonetaryAmount price,
+			Quantity quantity) {
+
+		Assert.notNull(id, "LineItemIdentifier must not be null!");
+		Assert.notNull(product, "ProductIdentifier must not be null!");
+		Assert.notNull(productName, "Product name must not be null!");
+		Assert.notNull(price, "Price must not be null!");
+		Assert.notNull(quantity, "Quantity must not be null!");
+
+		this.id = id;
+		this.productIdentifier = Association.forId(product);
+		this.productName = productName;
+		this.price = price;
+		this.quantity = quantity;
+	}
+
+	/**
+	 * Adds the given {@link Quantity} of the given {@link Product} to the {@link LineItem}, increasing both its quantity
+	 * and its price.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 * @return the current {@link LineItem}.
+	 */
+	LineItem increase(Product product, Quantity quantity) {
+
+		Assert.notNull(product, "Product must be not null!");
+		Assert.notNull(quantity, "Quantity must be not null!");
+		Assert.isTrue(refersTo(product), "Product %s does not match line item %s!".formatted(product, this));
+
+		if (!product.supports(quantity)) {
+			throw new MetricMismatchException("Product %s does not support quantity %s!".formatted(product, quantity));
+		}
+
+		this.quantity = this.quantity.add(quantity);
+		this.price = this.price.add(product.getPrice().multiply(quantity.getAmount()));
+
+		return this;
+	}
+
 	/**
 	 * Returns whether the {@link LineItem} refers to the given {@link Product}.
 	 *
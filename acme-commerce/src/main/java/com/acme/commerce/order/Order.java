@@ -18,6 +18,8 @@ package com.acme.commerce.order;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
@@ -25,7 +27,10 @@ import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.money.MonetaryAmount;
@@ -38,6 +43,8 @@ import org.springframework.data.util.Streamable;
 import org.springframework.util.Assert;
 
 import com.acme.commerce.catalog.Product;
+import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.Identifiers;
 import com.acme.commerce.core.Quantity;
 import com.acme.commerce.customer.Customer;
 import com.acme.commerce.customer.Customer.CustomerIdentifier;
@@ -53,7 +60,7 @@ import com.acme.commerce.order.OrderEvents.OrderPaid;
 @ToString(doNotUseGetters = true)
 public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot<Order, OrderIdentifier> {
 
-	private final @Getter OrderIdentifier id = new OrderIdentifier(UUID.randomUUID());
+	private final @Getter OrderIdentifier id;
 	private final @Getter Association<Customer, CustomerIdentifier> customer;
 
 	@Getter //
@@ -65,6 +72,21 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 
 	private List<LineItem> lineItems = new ArrayList<>();
 
+	/**
+	 * The {@link LineItem}s keyed by the identifier of the {@link Product} they refer to. Lazily built from
+	 * {@link #lineItems} on first access, as it's not populated when the {@link Order} is materialized from the database.
+	 */
+	@Transient @ToString.Exclude //
+	private Map<ProductIdentifier, List<LineItem>> lineItemsByProduct;
+
+	/**
+	 * The sequence number of the last {@link OrderTransition} reflected in the state of the {@link Order}.
+	 */
+	@Getter(AccessLevel.PACKAGE) //
+	private long journalSequence = 0;
+
+	private @Version Long version;
+
 	/**
 	 * Creates a new Order
 	 *
@@ -74,10 +96,37 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 
 		Assert.notNull(customerIdentifier, "CustomerIdentifier must not be null");
 
+		this.id = new OrderIdentifier(Identifiers.next());
 		this.customer = Association.forId(customerIdentifier);
 		this.dateCreated = LocalDateTime.now();
 	}
 
+	/**
+	 * Restores an {@link Order} with the given state, e.g. from the {@link OrderArchive}. The instance is not meant to be
+	 * persisted.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @param customer must not be {@literal null}.
+	 * @param dateCreated must not be {@literal null}.
+	 * @param status must not be {@literal null}.
+	 * @param lineItems must not be {@literal null}.
+	 */
+	Order(OrderIdentifier id, CustomerIdentifier customer, LocalDateTime dateCreated, OrderStatus status,
+			List<LineItem> lineItems) {
+
+		Assert.notNull(id, "OrderIdentifier must not be null!");
+		Assert.notNull(customer, "CustomerIdentifier must not be null!");
+		Assert.notNull(dateCreated, "Creation date must not be null!");
+		Assert.notNull(status, "OrderStatus must not be null!");
+		Assert.notNull(lineItems, "Line items must not be null!");
+
+		this.id = id;
+		this.customer = Association.forId(customer);
+		this.dateCreated = dateCreated;
+		this.orderStatus = status;
+		this.lineItems = new ArrayList<>(lineItems);
+	}
+
 	/**
 	 * Returns all {@link LineItem}s of the {@link Order}.
 	 *
@@ -97,8 +146,21 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 
 		Assert.notNull(product, "Product must not be null!");
 
-		return Totalable.of(Streamable.of(() -> lineItems.stream() //
-				.filter(it -> it.refersTo(product))));
+		return getOrderLines(product.getId());
+	}
+
+	/**
+	 * Returns all {@link LineItem} instances that refer to the {@link Product} with the given identifier.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @return
+	 */
+	public Totalable<LineItem> getOrderLines(ProductIdentifier identifier) {
+
+		Assert.notNull(identifier, "Product identifier must not be null!");
+
+		return Totalable.of(Streamable.of(() -> getLineItemsByProduct() //
+				.getOrDefault(identifier, Collections.emptyList()).stream()));
 	}
 
 	/**
@@ -123,9 +185,7 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 		Assert.notNull(orderLine, "OrderLine must not be null!");
 		assertOrderIsOpen();
 
-		this.lineItems.add(orderLine);
-
-		return orderLine;
+		return index(orderLine);
 	}
 
 	/**
@@ -136,15 +196,34 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 	 * @return the {@link LineItem} added.
 	 */
 	public LineItem addOrderLine(Product product, Quantity quantity) {
+		return addOrderLine(product, quantity, LineItemMergePolicy.APPEND);
+	}
+
+	/**
+	 * Adds the given {@link Quantity} of the given {@link Product} to the {@link Order} applying the given
+	 * {@link LineItemMergePolicy}.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 * @param policy must not be {@literal null}.
+	 * @return the {@link LineItem} added or the existing one the {@link Quantity} was merged into.
+	 */
+	public LineItem addOrderLine(Product product, Quantity quantity, LineItemMergePolicy policy) {
 
 		Assert.notNull(product, "Product must not be null!");
 		Assert.notNull(quantity, "Quantity must not be null!");
+		Assert.notNull(policy, "LineItemMergePolicy must not be null!");
 
-		LineItem orderLine = new LineItem(product, quantity);
+		if (policy == LineItemMergePolicy.MERGE) {
 
-		this.lineItems.add(orderLine);
+			var existing = getLineItemsByProduct().get(product.getId());
 
-		return orderLine;
+			if (existing != null && !existing.isEmpty()) {
+				return existing.get(0).increase(product, quantity);
+			}
+		}
+
+		return index(new LineItem(product, quantity));
 	}
 
 	/**
@@ -157,7 +236,17 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 		Assert.notNull(orderLine, "OrderLine must not be null!");
 		assertOrderIsOpen();
 
-		this.lineItems.remove(orderLine);
+		if (this.lineItems.remove(orderLine)) {
+
+			var identifier = orderLine.getProductIdentifier().getId();
+			var items = getLineItemsByProduct().get(identifier);
+
+			items.remove(orderLine);
+
+			if (items.isEmpty()) {
+				lineItemsByProduct.remove(identifier);
+			}
+		}
 	}
 
 	/**
@@ -202,7 +291,7 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 
 		this.orderStatus = OrderStatus.COMPLETED;
 
-		registerEvent(new OrderCompleted(id));
+		registerEvent(OrderCompleted.of(this));
 
 		return this;
 	}
@@ -221,9 +310,9 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 			registerEvent(new OrderCompleted(id));
 		}
 
-		this.orderStatus = OrderStatus.CANCELLED;
+		registerEvent(OrderCanceled.of(this, reason));
 
-		registerEvent(new OrderCanceled(id, reason));
+		this.orderStatus = OrderStatus.CANCELLED;
 
 		return this;
 	}
@@ -247,6 +336,41 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 		return this;
 	}
 
+	/**
+	 * Applies the given {@link OrderTransition} recorded for the {@link Order} without registering any events, as those
+	 * have already been published when the transition was recorded.
+	 *
+	 * @param transition must not be {@literal null}.
+	 * @return the current instance.
+	 */
+	Order apply(OrderTransition transition) {
+
+		Assert.notNull(transition, "OrderTransition must not be null!");
+		Assert.isTrue(transition.getOrderId().equals(id.id()), "Transition does not belong to this order!");
+
+		if (transition.getSequenceNumber() > journalSequence) {
+			this.orderStatus = transition.getStatus();
+			this.journalSequence = transition.getSequenceNumber();
+		}
+
+		return this;
+	}
+
+	/**
+	 * Returns the events registered since they were last published and removes them from the {@link Order}. Used to
+	 * publish them along with an {@link OrderTransition} instead of by saving the {@link Order}.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	List<Object> pullDomainEvents() {
+
+		var events = List.copyOf(domainEvents());
+
+		clearDomainEvents();
+
+		return events;
+	}
+
 	/**
 	 * Asserts that the {@link Order} is {@link OrderStatus#OPEN}. Usually a precondition to manipulate the {@link Order}
 	 * state internally.
@@ -258,5 +382,49 @@ public class Order extends AbstractAggregateRoot<Order> implements AggregateRoot
 		}
 	}
 
+	private LineItem index(LineItem lineItem) {
+
+		var items = getLineItemsByProduct();
+
+		this.lineItems.add(lineItem);
+
+		items.computeIfAbsent(lineItem.getProductIdentifier().getId(), __ -> new ArrayList<>(1)).add(lineItem);
+
+		return lineItem;
+	}
+
+	private Map<ProductIdentifier, List<LineItem>> getLineItemsByProduct() {
+
+		if (lineItemsByProduct == null) {
+
+			var index = new HashMap<ProductIdentifier, List<LineItem>>();
+
+			lineItems.forEach(it -> index.computeIfAbsent(it.getProductIdentifier().getId(), __ -> new ArrayList<>(1))
+					.add(it));
+
+			this.lineItemsByProduct = index;
+		}
+
+		return lineItemsByProduct;
+	}
+
 	public record OrderIdentifier(UUID id) implements Identifier {}
+
+	/**
+	 * How to handle a {@link Product} being added to an {@link Order} that already contains a {@link LineItem} for it.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	public enum LineItemMergePolicy {
+
+		/**
+		 * Always adds a new {@link LineItem}.
+		 */
+		APPEND,
+
+		/**
+		 * Folds the {@link Quantity} into the existing {@link LineItem} for the same {@link Product}.
+		 */
+		MERGE;
+	}
 }
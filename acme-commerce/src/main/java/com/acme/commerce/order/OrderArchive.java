@@ -0,0 +1,582 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.javamoney.moneta.Money;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.Metric;
+import com.acme.commerce.core.Quantity;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.order.LineItem.LineItemIdentifier;
+import com.acme.commerce.order.Order.OrderIdentifier;
+
+/**
+ * Append-only storage of closed {@link Order}s outside the database. Every call to {@link #append(List)} writes a new
+ * segment file consisting of GZIP compressed blocks of {@link OrderArchiveProperties#getBlockSize()} {@link Order}s
+ * each, ordered by their creation date. A sparse index per segment keeps the creation date range of every block and
+ * Bloom filters of the {@link OrderIdentifier}s and {@link CustomerIdentifier}s contained in it, so that lookups only
+ * decompress the blocks that might contain matches. The indexes of all segments are kept in memory.
+ * <p>
+ * The index of a segment is written after the segment itself and atomically moved into place, so that segments left
+ * incomplete by a crash are ignored. {@link Order}s that end up in multiple segments, e.g. because the database
+ * transaction removing them failed after the segment was written, are only returned once, as contained in the most
+ * recent segment.
+ *
+ * @author Oliver Drotbohm
+ * @see OrderArchiver
+ */
+@Slf4j
+@Component
+class OrderArchive {
+
+	private static final String SEGMENT_SUFFIX = ".seg";
+	private static final String INDEX_SUFFIX = ".idx";
+
+	private final @Nullable Path directory;
+	private final int blockSize;
+	private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Creates a new {@link OrderArchive} for the given {@link OrderArchiveProperties} and loads the indexes of all
+	 * segments already present. Stays empty if no directory is configured.
+	 *
+	 * @param properties must not be {@literal null}.
+	 */
+	OrderArchive(OrderArchiveProperties properties) {
+
+		Assert.notNull(properties, "OrderArchiveProperties must not be null!");
+
+		this.directory = properties.getDirectory();
+		this.blockSize = properties.getBlockSize();
+
+		if (directory == null || !Files.isDirectory(directory)) {
+			return;
+		}
+
+		try (var files = Files.list(directory)) {
+
+			files.filter(it -> it.getFileName().toString().endsWith(INDEX_SUFFIX)) //
+					.sorted() //
+					.map(OrderArchive::readIndex) //
+					.forEach(segments::add);
+
+		} catch (IOException o_O) {
+			throw new UncheckedIOException(o_O);
+		}
+
+		log.info("Loaded {} order archive segments from {}.", segments.size(), directory);
+	}
+
+	/**
+	 * Writes the given {@link Order}s into a new segment. Returns only after the segment and its index have been synced
+	 * to disk. If a transaction is active, the segment is only used for lookups once it has committed and its files
+	 * are removed again if it rolls back, so that retries don't leave outdated copies of the {@link Order}s behind.
+	 *
+	 * @param orders must not be {@literal null}.
+	 * @throws IllegalStateException in case no archive directory is configured.
+	 */
+	void append(List<Order> orders) {
+
+		Assert.notNull(orders, "Orders must not be null!");
+		Assert.state(directory != null, "No order archive directory configured!");
+
+		if (orders.isEmpty()) {
+			return;
+		}
+
+		var sorted = orders.stream() //
+				.sorted(Comparator.comparing(Order::getDateCreated)) //
+				.toList();
+
+		var name = "segment-%d-%s".formatted(System.currentTimeMillis(), UUID.randomUUID().toString().substring(0, 8));
+		var file = directory.resolve(name + SEGMENT_SUFFIX);
+		var blocks = new ArrayList<Block>();
+
+		try {
+
+			Files.createDirectories(directory);
+
+			try (var channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+
+				for (int i = 0; i < sorted.size(); i += blockSize) {
+
+					var block = sorted.subList(i, Math.min(i + blockSize, sorted.size()));
+					var bytes = ByteBuffer.wrap(compress(block));
+					var offset = channel.position();
+
+					while (bytes.hasRemaining()) {
+						channel.write(bytes);
+					}
+
+					blocks.add(Block.of(block, offset, (int) (channel.position() - offset)));
+				}
+
+				channel.force(true);
+			}
+
+			var segment = new Segment(file, blocks);
+			var index = directory.resolve(name + INDEX_SUFFIX);
+
+			writeIndex(segment, index);
+			publish(segment, index);
+
+		} catch (IOException o_O) {
+			throw new UncheckedIOException(o_O);
+		}
+	}
+
+	/**
+	 * Returns the archived {@link Order} with the given identifier.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	Optional<Order> find(OrderIdentifier identifier) {
+
+		Assert.notNull(identifier, "OrderIdentifier must not be null!");
+
+		for (int i = segments.size() - 1; i >= 0; i--) {
+
+			var segment = segments.get(i);
+
+			for (var block : segment.blocks()) {
+
+				if (!block.orders().mightContain(identifier.id())) {
+					continue;
+				}
+
+				var result = segment.read(block).stream() //
+						.filter(it -> it.getId().equals(identifier)) //
+						.findFirst();
+
+				if (result.isPresent()) {
+					return result;
+				}
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns all archived {@link Order}s of the given customer.
+	 *
+	 * @param customer must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	List<Order> findBy(CustomerIdentifier customer) {
+
+		Assert.notNull(customer, "CustomerIdentifier must not be null!");
+
+		return find(it -> it.customers().mightContain(customer.id()),
+				it -> it.getCustomer().getId().equals(customer));
+	}
+
+	/**
+	 * Returns all archived {@link Order}s created in the given time frame (inclusive).
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	List<Order> findBy(LocalDateTime from, LocalDateTime to) {
+
+		Assert.notNull(from, "From must not be null!");
+		Assert.notNull(to, "To must not be null!");
+
+		return find(it -> !it.to().isBefore(from) && !it.from().isAfter(to),
+				it -> !it.getDateCreated().isBefore(from) && !it.getDateCreated().isAfter(to));
+	}
+
+	/**
+	 * Returns the archived {@link Order}s matching the given filter from all blocks considered candidates. Looks at the
+	 * most recent segments first, so that the latest copy of an {@link Order} contained in multiple segments wins, just
+	 * like in {@link #find(OrderIdentifier)}.
+	 */
+	private List<Order> find(Predicate<Block> candidate, Predicate<Order> filter) {
+
+		var result = new LinkedHashMap<OrderIdentifier, Order>();
+
+		for (int i = segments.size() - 1; i >= 0; i--) {
+
+			var segment = segments.get(i);
+
+			for (var block : segment.blocks()) {
+				if (candidate.test(block)) {
+					segment.read(block).stream() //
+							.filter(filter) //
+							.forEach(it -> result.putIfAbsent(it.getId(), it));
+				}
+			}
+		}
+
+		return List.copyOf(result.values());
+	}
+
+	/**
+	 * Makes the given {@link Segment} available for lookups, after the current transaction has committed if one is
+	 * active. Removes the files of the {@link Segment} if the transaction rolls back.
+	 */
+	private void publish(Segment segment, Path index) {
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			segments.add(segment);
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			/*
+			 * (non-Javadoc)
+			 * @see org.springframework.transaction.support.TransactionSynchronization#afterCompletion(int)
+			 */
+			@Override
+			public void afterCompletion(int status) {
+
+				// Keep the segment if the outcome is unknown, as lookups prefer the database over the archive anyway
+				if (status != STATUS_ROLLED_BACK) {
+					segments.add(segment);
+					return;
+				}
+
+				try {
+					Files.deleteIfExists(index);
+					Files.deleteIfExists(segment.file());
+				} catch (IOException o_O) {
+					log.warn("Failed to remove archive segment {} of rolled back transaction!", segment.file(), o_O);
+				}
+			}
+		});
+	}
+
+	private static byte[] compress(List<Order> orders) throws IOException {
+
+		var bytes = new ByteArrayOutputStream();
+
+		try (var out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+
+			out.writeInt(orders.size());
+
+			for (var order : orders) {
+				write(order, out);
+			}
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private static List<Order> decompress(byte[] bytes) throws IOException {
+
+		try (var in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)))) {
+
+			var size = in.readInt();
+			var orders = new ArrayList<Order>(size);
+
+			for (int i = 0; i < size; i++) {
+				orders.add(readOrder(in));
+			}
+
+			return orders;
+		}
+	}
+
+	private static void write(Order order, DataOutputStream out) throws IOException {
+
+		var lineItems = order.getOrderLines().toList();
+
+		write(order.getId().id(), out);
+		write(order.getCustomer().getId().id(), out);
+		write(order.getDateCreated(), out);
+		out.writeUTF(order.getOrderStatus().name());
+		out.writeInt(lineItems.size());
+
+		for (var item : lineItems) {
+
+			write(item.getId().id(), out);
+			write(item.getProductIdentifier().getId().id(), out);
+			out.writeUTF(item.getProductName());
+			out.writeUTF(item.getPrice().getNumber().numberValue(BigDecimal.class).toPlainString());
+			out.writeUTF(item.getPrice().getCurrency().getCurrencyCode());
+			out.writeUTF(item.getQuantity().getAmount().toPlainString());
+			out.writeUTF(item.getQuantity().getMetric().name());
+		}
+	}
+
+	private static Order readOrder(DataInputStream in) throws IOException {
+
+		var id = new OrderIdentifier(readUuid(in));
+		var customer = new CustomerIdentifier(readUuid(in));
+		var dateCreated = readDate(in);
+		var status = OrderStatus.valueOf(in.readUTF());
+		var size = in.readInt();
+		var lineItems = new ArrayList<LineItem>(size);
+
+		for (int i = 0; i < size; i++) {
+
+			var itemId = new LineItemIdentifier(readUuid(in));
+			var product = new ProductIdentifier(readUuid(in));
+			var productName = in.readUTF();
+			var price = Money.of(new BigDecimal(in.readUTF()), in.readUTF());
+			var quantity = Quantity.of(new BigDecimal(in.readUTF()), Metric.valueOf(in.readUTF()));
+
+			lineItems.add(new LineItem(itemId, product, productName, price, quantity));
+		}
+
+		return new Order(id, customer, dateCreated, status, lineItems);
+	}
+
+	private static void writeIndex(Segment segment, Path index) throws IOException {
+
+		var temporary = index.resolveSibling(index.getFileName() + ".tmp");
+
+		try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+
+			var bytes = new ByteArrayOutputStream();
+
+			try (var out = new DataOutputStream(bytes)) {
+
+				out.writeUTF(segment.file().getFileName().toString());
+				out.writeInt(segment.blocks().size());
+
+				for (var block : segment.blocks()) {
+
+					out.writeLong(block.offset());
+					out.writeInt(block.length());
+					write(block.from(), out);
+					write(block.to(), out);
+					block.orders().write(out);
+					block.customers().write(out);
+				}
+			}
+
+			var buffer = ByteBuffer.wrap(bytes.toByteArray());
+
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+
+			channel.force(true);
+		}
+
+		Files.move(temporary, index, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static Segment readIndex(Path index) {
+
+		try (var in = new DataInputStream(Files.newInputStream(index))) {
+
+			var file = index.resolveSibling(in.readUTF());
+			var size = in.readInt();
+			var blocks = new ArrayList<Block>(size);
+
+			for (int i = 0; i < size; i++) {
+				blocks.add(new Block(in.readLong(), in.readInt(), readDate(in), readDate(in), BloomFilter.read(in),
+						BloomFilter.read(in)));
+			}
+
+			return new Segment(file, blocks);
+
+		} catch (IOException o_O) {
+			throw new UncheckedIOException("Failed to read archive index %s!".formatted(index), o_O);
+		}
+	}
+
+	private static void write(UUID uuid, DataOutputStream out) throws IOException {
+		out.writeLong(uuid.getMostSignificantBits());
+		out.writeLong(uuid.getLeastSignificantBits());
+	}
+
+	private static UUID readUuid(DataInputStream in) throws IOException {
+		return new UUID(in.readLong(), in.readLong());
+	}
+
+	private static void write(LocalDateTime date, DataOutputStream out) throws IOException {
+		out.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+		out.writeInt(date.getNano());
+	}
+
+	private static LocalDateTime readDate(DataInputStream in) throws IOException {
+		return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+	}
+
+	/**
+	 * A segment file and the index of the blocks it consists of.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	private record Segment(Path file, List<Block> blocks) {
+
+		List<Order> read(Block block) {
+
+			var buffer = ByteBuffer.allocate(block.length());
+
+			try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer, block.offset() + buffer.position()) < 0) {
+						throw new IOException("Unexpected end of archive segment %s!".formatted(file));
+					}
+				}
+
+				return decompress(buffer.array());
+
+			} catch (IOException o_O) {
+				throw new UncheckedIOException(o_O);
+			}
+		}
+	}
+
+	/**
+	 * The index entry of a compressed block of {@link Order}s within a segment.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	private record Block(long offset, int length, LocalDateTime from, LocalDateTime to, BloomFilter orders,
+			BloomFilter customers) {
+
+		static Block of(List<Order> orders, long offset, int length) {
+
+			var orderIds = new BloomFilter(orders.size());
+			var customerIds = new BloomFilter(orders.size());
+
+			orders.forEach(it -> {
+				orderIds.add(it.getId().id());
+				customerIds.add(it.getCustomer().getId().id());
+			});
+
+			return new Block(offset, length, orders.get(0).getDateCreated(),
+					orders.get(orders.size() - 1).getDateCreated(), orderIds, customerIds);
+		}
+	}
+
+	/**
+	 * A Bloom filter of {@link UUID}s using ten bits per element and seven hash functions, i.e. a false positive rate of
+	 * about one percent.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	private static class BloomFilter {
+
+		private static final int BITS_PER_ELEMENT = 10;
+		private static final int NUMBER_OF_HASHES = 7;
+
+		private final long[] bits;
+
+		BloomFilter(int expectedElements) {
+			this(new long[Math.max(1, (expectedElements * BITS_PER_ELEMENT + 63) / 64)]);
+		}
+
+		private BloomFilter(long[] bits) {
+			this.bits = bits;
+		}
+
+		static BloomFilter read(DataInputStream in) throws IOException {
+
+			var bits = new long[in.readInt()];
+
+			for (int i = 0; i < bits.length; i++) {
+				bits[i] = in.readLong();
+			}
+
+			return new BloomFilter(bits);
+		}
+
+		void add(UUID uuid) {
+
+			for (int i = 0; i < NUMBER_OF_HASHES; i++) {
+
+				var bit = index(uuid, i);
+
+				bits[bit >>> 6] |= 1L << bit;
+			}
+		}
+
+		boolean mightContain(UUID uuid) {
+
+			for (int i = 0; i < NUMBER_OF_HASHES; i++) {
+
+				var bit = index(uuid, i);
+
+				if ((bits[bit >>> 6] & 1L << bit) == 0) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		void write(DataOutputStream out) throws IOException {
+
+			out.writeInt(bits.length);
+
+			for (long word : bits) {
+				out.writeLong(word);
+			}
+		}
+
+		// Double hashing as described by Kirsch and Mitzenmacher
+		private int index(UUID uuid, int i) {
+
+			var first = mix(uuid.getMostSignificantBits());
+			var second = mix(uuid.getLeastSignificantBits()) | 1;
+
+			return (int) Math.floorMod(first + i * second, bits.length * 64L);
+		}
+
+		private static long mix(long value) {
+
+			value = (value ^ value >>> 33) * 0xff51afd7ed558ccdL;
+			value = (value ^ value >>> 33) * 0xc4ceb9fe1a85ec53L;
+
+			return value ^ value >>> 33;
+		}
+	}
+}
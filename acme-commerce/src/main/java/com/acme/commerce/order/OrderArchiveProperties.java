@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Properties to configure the archival of closed {@link Order}s. Declare {@code acme.commerce.order.archive.…} in
+ * application properties to tweak settings.
+ *
+ * @author Oliver Drotbohm
+ */
+@Value
+@ConfigurationProperties("acme.commerce.order.archive")
+class OrderArchiveProperties {
+
+	private static final Duration DEFAULT_RETENTION = Duration.ofDays(90);
+	private static final int DEFAULT_SEGMENT_SIZE = 5000;
+	private static final int DEFAULT_BLOCK_SIZE = 256;
+
+	/**
+	 * Whether to move closed {@link Order}s into the archive once a day.
+	 */
+	private boolean enabled;
+
+	/**
+	 * The directory to store the archive segments in. Required if archival is enabled, as archived {@link Order}s are
+	 * removed from the database. Thus, it has to point to durable storage, e.g. not into a temporary directory.
+	 */
+	private @Nullable Path directory;
+
+	/**
+	 * How long completed and cancelled {@link Order}s are kept in the database before they're archived.
+	 */
+	private Duration retention;
+
+	/**
+	 * The maximum number of {@link Order}s to archive into a single segment file, i.e. in a single transaction.
+	 */
+	private int segmentSize;
+
+	/**
+	 * The number of {@link Order}s per compressed block of a segment. The unit of decompression for lookups.
+	 */
+	private int blockSize;
+
+	OrderArchiveProperties(boolean enabled, @Nullable Path directory, @Nullable Duration retention,
+			@Nullable Integer segmentSize, @Nullable Integer blockSize) {
+
+		Assert.isTrue(!enabled || directory != null,
+				"acme.commerce.order.archive.directory must be configured if archival is enabled!");
+
+		this.enabled = enabled;
+		this.directory = directory;
+		this.retention = retention == null ? DEFAULT_RETENTION : retention;
+		this.segmentSize = segmentSize == null ? DEFAULT_SEGMENT_SIZE : segmentSize;
+		this.blockSize = blockSize == null ? DEFAULT_BLOCK_SIZE : blockSize;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.jmolecules.event.annotation.DomainEventHandler;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.modulith.moments.DayHasPassed;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.acme.commerce.core.OptimisticLockingRetries;
+
+/**
+ * Moves closed {@link Order}s older than {@link OrderArchiveProperties#getRetention()} from the database into the
+ * {@link OrderArchive} once a day if {@link OrderArchiveProperties#isEnabled()}. Every batch of
+ * {@link OrderArchiveProperties#getSegmentSize()} {@link Order}s is written to a segment of its own and removed from
+ * the database in the same transaction, which is rolled back if writing the segment fails. The
+ * {@link OrderHistoryEntry}s of archived {@link Order}s are kept.
+ *
+ * @author Oliver Drotbohm
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class OrderArchiver {
+
+	private static final Set<OrderStatus> CLOSED = EnumSet.of(OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+
+	private final @NonNull OrderRepository orders;
+	private final @NonNull OrderArchive archive;
+	private final @NonNull OrderJournal journal;
+	private final @NonNull OrderArchiveProperties properties;
+	private final @NonNull OptimisticLockingRetries retries;
+	private final @NonNull OrderShards shards;
+
+	@Async
+	@DomainEventHandler
+	void on(DayHasPassed event) {
+
+		if (!properties.isEnabled()) {
+			return;
+		}
+
+		var archived = archive(event.getDate().atStartOfDay().minus(properties.getRetention()));
+
+		log.info("Archived {} closed orders on {}.", archived, event.getDate());
+	}
+
+	/**
+	 * Archives all closed {@link Order}s created before the given date.
+	 *
+	 * @param cutoff must not be {@literal null}.
+	 * @return the number of {@link Order}s archived.
+	 */
+	int archive(LocalDateTime cutoff) {
+
+		Assert.notNull(cutoff, "Cutoff date must not be null!");
+
+		// Closed orders are looked up by the status of their snapshot
+		if (journal.isEnabled()) {
+			journal.compact();
+		}
+
+		return shards.onAllShards(() -> archiveShard(cutoff)).stream() //
+				.mapToInt(Integer::intValue) //
+				.sum();
+	}
+
+	private int archiveShard(LocalDateTime cutoff) {
+
+		var page = PageRequest.of(0, properties.getSegmentSize(), Sort.by("dateCreated"));
+		var total = 0;
+
+		for (;;) {
+
+			int archived = retries.execute(() -> {
+
+				var batch = orders.findByOrderStatusInAndDateCreatedBefore(CLOSED, cutoff, page).getContent();
+
+				archive.append(batch);
+				orders.deleteAll(batch);
+
+				return batch.size();
+			});
+
+			if (archived == 0) {
+				return total;
+			}
+
+			total += archived;
+		}
+	}
+}
@@ -15,8 +15,12 @@
  */
 package com.acme.commerce.order;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 
 import org.springframework.util.Assert;
 
@@ -36,6 +40,12 @@ public class OrderCompletionFailure extends RuntimeException {
 	Order order;
 	OrderCompletionReport report;
 
+	/**
+	 * The message rendered from the {@link OrderCompletionReport} on first access, as the exception might be asked for
+	 * its message multiple times (logging, tracing, the error response).
+	 */
+	@NonFinal @Getter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude transient String message;
+
 	/**
 	 * Creates a new {@link OrderCompletionFailure} for the given {@link Order} and message.
 	 *
@@ -51,18 +61,37 @@ public class OrderCompletionFailure extends RuntimeException {
 	}
 
 	/**
-	 * Creates a new {@link OrderCompletionFailure} for the given {@link OrderCompletionReport}.
+	 * Creates a new {@link OrderCompletionFailure} for the given {@link OrderCompletionReport}. The exception message is
+	 * only rendered from the report once it is requested and then kept for subsequent calls.
 	 *
 	 * @param report must not be {@literal null}.
 	 */
 	public OrderCompletionFailure(OrderCompletionReport report) {
 
-		super("Order completion failed! ".concat(report.toString()));
-
 		Assert.notNull(report, "OrderCompletionReport must not be null!");
 		Assert.isTrue(report.hasErrors(), "OrderCompletionReport must contain errors!");
 
 		this.order = report.getOrder();
 		this.report = report;
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Throwable#getMessage()
+	 */
+	@Override
+	public String getMessage() {
+
+		var message = this.message;
+
+		if (message == null) {
+
+			var given = super.getMessage();
+
+			message = given != null ? given : "Order completion failed! ".concat(report.toString());
+			this.message = message;
+		}
+
+		return message;
+	}
 }
@@ -24,6 +24,7 @@ import lombok.Value;
 import lombok.experimental.FieldDefaults;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -33,14 +34,40 @@ import org.springframework.util.Assert;
 
 import com.acme.commerce.order.OrderCompletionReport.OrderLineCompletion;
 
+/**
+ * A report about the completion of an {@link Order}. The status and the number of errors are calculated once on
+ * creation, the {@link #toString()} representation is only rendered on demand.
+ *
+ * @author Oliver Drotbohm
+ */
 @EqualsAndHashCode
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class OrderCompletionReport implements Streamable<OrderLineCompletion> {
 
-	@NonNull @Getter Order order;
-	@NonNull @Getter CompletionStatus status;
-	@NonNull Streamable<OrderLineCompletion> completions;
+	@Getter Order order;
+	@Getter CompletionStatus status;
+	List<OrderLineCompletion> completions;
+	int numberOfErrors;
+
+	private OrderCompletionReport(Order order, CompletionStatus status, List<OrderLineCompletion> completions) {
+
+		Assert.notNull(order, "Order must not be null!");
+		Assert.notNull(status, "CompletionStatus must not be null!");
+		Assert.notNull(completions, "Completions must not be null!");
+
+		var numberOfErrors = 0;
+
+		for (OrderLineCompletion completion : completions) {
+			if (completion.isFailure()) {
+				numberOfErrors++;
+			}
+		}
+
+		this.order = order;
+		this.completions = completions;
+		this.numberOfErrors = numberOfErrors;
+		this.status = numberOfErrors > 0 ? CompletionStatus.FAILED : status;
+	}
 
 	/**
 	 * Creates an {@link OrderCompletionReport} representing a successful verification of the given {@link Order}.
@@ -50,8 +77,9 @@ public class OrderCompletionReport implements Streamable<OrderLineCompletion> {
 	 */
 	public static OrderCompletionReport success(Order order) {
 
-		return OrderCompletionReport.forCompletions(order,
-				Streamable.of(() -> order.getOrderLines().stream().map(it -> OrderLineCompletion.success(it))));
+		return new OrderCompletionReport(order, CompletionStatus.SUCCEEDED, order.getOrderLines() //
+				.map(OrderLineCompletion::success) //
+				.toList());
 	}
 
 	/**
@@ -61,7 +89,7 @@ public class OrderCompletionReport implements Streamable<OrderLineCompletion> {
 	 * @return will never be {@literal null}.
 	 */
 	public static OrderCompletionReport failed(Order order) {
-		return new OrderCompletionReport(order, CompletionStatus.FAILED, Streamable.empty());
+		return new OrderCompletionReport(order, CompletionStatus.FAILED, List.of());
 	}
 
 	/**
@@ -72,22 +100,12 @@ public class OrderCompletionReport implements Streamable<OrderLineCompletion> {
 	 * @return will never be {@literal null}.
 	 */
 	public static OrderCompletionReport forCompletions(Order order, Iterable<OrderLineCompletion> completions) {
-		return forCompletions(order, Streamable.of(completions));
-	}
 
-	/**
-	 * Creates a new {@link OrderCompletionReport} for the given {@link Order} and {@link OrderLineCompletion}s.
-	 *
-	 * @param order must not be {@literal null}.
-	 * @param completions must not be {@literal null}.
-	 * @return will never be {@literal null}.
-	 */
-	static OrderCompletionReport forCompletions(Order order, Streamable<OrderLineCompletion> completions) {
+		Assert.notNull(completions, "Completions must not be null!");
 
-		return new OrderCompletionReport(order, completions.stream().anyMatch(OrderLineCompletion::isFailure) //
-				? CompletionStatus.FAILED //
-				: CompletionStatus.SUCCEEDED //
-				, completions);
+		return new OrderCompletionReport(order, CompletionStatus.SUCCEEDED, completions instanceof List<OrderLineCompletion> list //
+				? List.copyOf(list) //
+				: Streamable.of(completions).toList());
 	}
 
 	/**
@@ -97,7 +115,16 @@ public class OrderCompletionReport implements Streamable<OrderLineCompletion> {
 	 * @return
 	 */
 	public boolean hasErrors() {
-		return completions.stream().anyMatch(OrderLineCompletion::isFailure);
+		return numberOfErrors > 0;
+	}
+
+	/**
+	 * Returns the number of {@link OrderLineCompletion}s that failed.
+	 *
+	 * @return
+	 */
+	public int getNumberOfErrors() {
+		return numberOfErrors;
 	}
 
 	/**
@@ -132,13 +159,18 @@ public class OrderCompletionReport implements Streamable<OrderLineCompletion> {
 	@Override
 	public String toString() {
 
-		StringBuilder builder = new StringBuilder() //
+		StringBuilder builder = new StringBuilder(64 + completions.size() * 128) //
 				.append(status) //
 				.append(" ") //
 				.append(order);
 
-		completions.forEach(it -> builder.append('\n') //
-				.append("> ").append(it));
+		if (numberOfErrors > 0) {
+			builder.append(" (").append(numberOfErrors).append(" of ").append(completions.size()).append(" failed)");
+		}
+
+		for (OrderLineCompletion completion : completions) {
+			builder.append('\n').append("> ").append(completion);
+		}
 
 		return builder.toString();
 	}
@@ -15,8 +15,16 @@
  */
 package com.acme.commerce.order;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
 import org.jmolecules.event.types.DomainEvent;
+import org.springframework.lang.Nullable;
 
+import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.Metric;
+import com.acme.commerce.core.Quantity;
 import com.acme.commerce.order.Order.OrderIdentifier;
 
 /**
@@ -26,9 +34,106 @@ import com.acme.commerce.order.Order.OrderIdentifier;
  */
 public class OrderEvents {
 
-	public record OrderCompleted(OrderIdentifier orderId) implements DomainEvent {}
+	/**
+	 * Event published if an {@link Order} was completed. Optionally carries a snapshot of the {@link LineItem}s of the
+	 * {@link Order} so that listeners do not have to look up the {@link Order} again.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	public record OrderCompleted(OrderIdentifier orderId, @Nullable List<LineItemSnapshot> lineItems)
+			implements DomainEvent {
+
+		public OrderCompleted(OrderIdentifier orderId) {
+			this(orderId, null);
+		}
+
+		static OrderCompleted of(Order order) {
+
+			return new OrderCompleted(order.getId(), order.getOrderLines().stream() //
+					.map(LineItemSnapshot::of) //
+					.toList());
+		}
+
+		/**
+		 * Returns the snapshot of the {@link LineItem}s of the completed {@link Order} if available.
+		 *
+		 * @return will never be {@literal null}.
+		 */
+		public Optional<List<LineItemSnapshot>> snapshot() {
+			return Optional.ofNullable(lineItems);
+		}
+	}
+
+	/**
+	 * An immutable, compact snapshot of a {@link LineItem}.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	public record LineItemSnapshot(ProductIdentifier productId, BigDecimal amount, Metric metric) {
+
+		static LineItemSnapshot of(LineItem lineItem) {
+
+			var quantity = lineItem.getQuantity();
+
+			return new LineItemSnapshot(lineItem.getProductIdentifier().getId(), quantity.getAmount(), quantity.getMetric());
+		}
+
+		/**
+		 * Returns the {@link Quantity} of the line item.
+		 *
+		 * @return will never be {@literal null}.
+		 */
+		public Quantity toQuantity() {
+			return Quantity.of(amount, metric);
+		}
+	}
 
 	public record OrderPaid(OrderIdentifier orderId) implements DomainEvent {}
 
-	public record OrderCanceled(OrderIdentifier orderId, String reason) implements DomainEvent {}
+	/**
+	 * Event published if an {@link Order} was canceled. Carries the {@link OrderStatus} the {@link Order} was in before,
+	 * as listeners usually only need to compensate for completed {@link Order}s, and optionally a snapshot of its
+	 * {@link LineItem}s so that they do not have to look up the {@link Order} again.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	public record OrderCanceled(OrderIdentifier orderId, String reason, OrderStatus previousStatus,
+			@Nullable List<LineItemSnapshot> lineItems) implements DomainEvent {
+
+		public OrderCanceled(OrderIdentifier orderId, String reason, OrderStatus previousStatus) {
+			this(orderId, reason, previousStatus, null);
+		}
+
+		/**
+		 * Creates a new {@link OrderCanceled} for the given {@link Order} before its status is changed.
+		 *
+		 * @param order must not be {@literal null}.
+		 * @param reason can be {@literal null}.
+		 * @return will never be {@literal null}.
+		 */
+		static OrderCanceled of(Order order, String reason) {
+
+			return new OrderCanceled(order.getId(), reason, order.getOrderStatus(), order.getOrderLines().stream() //
+					.map(LineItemSnapshot::of) //
+					.toList());
+		}
+
+		/**
+		 * Returns whether the {@link Order} had been completed before it was canceled.
+		 *
+		 * @return
+		 */
+		public boolean wasCompleted() {
+			return previousStatus == OrderStatus.COMPLETED;
+		}
+
+		/**
+		 * Returns the snapshot of the {@link LineItem}s of the canceled {@link Order} if available.
+		 *
+		 * @return will never be {@literal null}.
+		 */
+		public Optional<List<LineItemSnapshot>> snapshot() {
+			return Optional.ofNullable(lineItems);
+		}
+	}
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.acme.commerce.order.OrderEvents.OrderCanceled;
+import com.acme.commerce.order.OrderEvents.OrderCompleted;
+import com.acme.commerce.order.OrderEvents.OrderPaid;
+
+/**
+ * Maintains the {@link OrderHistoryEntry}s for {@link Order} state transitions. Listens to the events synchronously so
+ * that the entries are updated in the very transaction that changes the {@link Order}. The entries are created when an
+ * {@link Order} is saved, so that a transition only needs to set the {@link OrderStatus} the event implies. Thus, the
+ * identifier carried by the event is all that's needed and the {@link Order} is never looked up.
+ *
+ * @author Oliver Drotbohm
+ */
+@Component
+@RequiredArgsConstructor
+class OrderHistory {
+
+	private final @NonNull OrderHistoryEntries entries;
+
+	@EventListener
+	void on(OrderPaid event) {
+		entries.updateStatus(event.orderId(), OrderStatus.PAID);
+	}
+
+	@EventListener
+	void on(OrderCompleted event) {
+		entries.updateStatus(event.orderId(), OrderStatus.COMPLETED);
+	}
+
+	@EventListener
+	void on(OrderCanceled event) {
+		entries.updateStatus(event.orderId(), OrderStatus.CANCELLED);
+	}
+}
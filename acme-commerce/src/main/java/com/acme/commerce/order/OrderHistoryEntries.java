@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.order.Order.OrderIdentifier;
+
+/**
+ * Repository interface for {@link OrderHistoryEntry}s.
+ *
+ * @author Oliver Drotbohm
+ */
+interface OrderHistoryEntries extends CrudRepository<OrderHistoryEntry, OrderIdentifier> {
+
+	/**
+	 * Returns the {@link OrderHistoryEntry}s of the given customer, most recent first. The entries are loaded read-only,
+	 * i.e. without snapshots for dirty checking.
+	 *
+	 * @param customer must not be {@literal null}.
+	 * @param pageable must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+	Streamable<OrderHistoryEntry> findByCustomerOrderByDateCreatedDesc(CustomerIdentifier customer, Pageable pageable);
+
+	/**
+	 * Sets the {@link OrderStatus} of the {@link OrderHistoryEntry} with the given identifier without loading it. The
+	 * persistence context is not cleared, as the entries are only read in transactions of their own. An instance still
+	 * managed as it was saved in the current transaction keeps its outdated status but isn't written back either, as it
+	 * doesn't differ from its snapshot.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @param status must not be {@literal null}.
+	 * @return the number of entries updated, i.e. zero or one.
+	 */
+	@Modifying
+	@Transactional
+	@Query("update #{#entityName} e set e.status = :status where e.id = :id")
+	int updateStatus(OrderIdentifier id, OrderStatus status);
+}
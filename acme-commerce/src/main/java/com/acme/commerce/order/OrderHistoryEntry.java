@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+import javax.money.MonetaryAmount;
+
+import org.jmolecules.ddd.types.AggregateRoot;
+import org.jmolecules.ddd.types.Association;
+import org.springframework.util.Assert;
+
+import com.acme.commerce.customer.Customer;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.order.Order.OrderIdentifier;
+
+/**
+ * A compact, read-optimized summary of an {@link Order} kept per {@link Customer} to serve account pages without
+ * touching the {@link Order} tables. Created whenever an {@link Order} is saved and kept up to date with its state
+ * transitions by {@link OrderHistory}.
+ *
+ * @author Oliver Drotbohm
+ */
+@Getter
+@ToString
+@Table(name = "ORDER_HISTORY", indexes = @Index(name = "IDX_ORDER_HISTORY_CUSTOMER", columnList = "customer, date_created"))
+public class OrderHistoryEntry implements AggregateRoot<OrderHistoryEntry, OrderIdentifier> {
+
+	private final OrderIdentifier id;
+	private final Association<Customer, CustomerIdentifier> customer;
+	private final LocalDateTime dateCreated;
+	private @Enumerated(EnumType.STRING) OrderStatus status;
+	private MonetaryAmount total;
+
+	private OrderHistoryEntry(Order order) {
+
+		this.id = order.getId();
+		this.customer = order.getCustomer();
+		this.dateCreated = order.getDateCreated();
+		this.status = order.getOrderStatus();
+		this.total = order.getTotal();
+	}
+
+	static OrderHistoryEntry of(Order order) {
+		return new OrderHistoryEntry(order);
+	}
+
+	/**
+	 * Refreshes the entry with the current status and total of the given {@link Order}, e.g. after {@link LineItem}s
+	 * have been added to it.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return the current instance.
+	 */
+	OrderHistoryEntry refresh(Order order) {
+
+		Assert.notNull(order, "Order must not be null!");
+		Assert.isTrue(id.equals(order.getId()), "Order must be the one the entry was created for!");
+
+		this.status = order.getOrderStatus();
+		this.total = order.getTotal();
+
+		return this;
+	}
+}
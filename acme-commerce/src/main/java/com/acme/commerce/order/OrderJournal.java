@@ -0,0 +1,298 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.jmolecules.event.annotation.DomainEventHandler;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.modulith.moments.DayHasPassed;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.acme.commerce.core.OptimisticLockingRetries;
+import com.acme.commerce.order.Order.OrderIdentifier;
+
+/**
+ * Append-only log of {@link Order} state transitions used if {@link OrderProperties#isJournal()} is enabled. Paying,
+ * completing and cancelling an {@link Order} then inserts a single {@link OrderTransition} carrying the events to
+ * publish instead of updating the {@link Order}. The {@link Order} rows act as snapshots the transitions recorded since
+ * are applied to when an {@link Order} is loaded. They're folded into the snapshots on {@link #compact()}, which runs
+ * once a day.
+ * <p>
+ * With the journal disabled, all methods fall back to the {@link OrderRepository} and {@link #append(Order)} saves the
+ * {@link Order} itself.
+ *
+ * @author Oliver Drotbohm
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class OrderJournal {
+
+	private final @NonNull OrderRepository orders;
+	private final @NonNull OrderTransitions transitions;
+	private final @NonNull OrderProperties properties;
+	private final @NonNull OptimisticLockingRetries retries;
+	private final @NonNull OrderShards shards;
+
+	/**
+	 * Returns whether {@link Order} transitions are recorded in the journal.
+	 *
+	 * @return
+	 */
+	boolean isEnabled() {
+		return properties.isJournal();
+	}
+
+	/**
+	 * Records the current state of the given {@link Order} after a transition and publishes the events it registered.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return the given {@link Order}.
+	 * @throws OptimisticLockingFailureException in case the {@link Order} has been transitioned concurrently.
+	 */
+	Order append(Order order) {
+
+		Assert.notNull(order, "Order must not be null!");
+
+		if (!isEnabled()) {
+			return orders.save(order);
+		}
+
+		// Transitions folded into the snapshot are gone, so the unique sequence number doesn't catch stale instances
+		if (order.getJournalSequence() < orders.findJournalSequenceById(order.getId()).orElse(0L)) {
+			throw new OptimisticLockingFailureException("Order %s is outdated!".formatted(order.getId()));
+		}
+
+		var transition = OrderTransition.of(order);
+
+		try {
+			transitions.saveAndFlush(transition);
+		} catch (DataIntegrityViolationException o_O) {
+			throw new OptimisticLockingFailureException("Order %s was transitioned concurrently!".formatted(order.getId()),
+					o_O);
+		}
+
+		return order.apply(transition);
+	}
+
+	/**
+	 * Records the current state of all given {@link Order}s after a transition.
+	 *
+	 * @param orders must not be {@literal null}.
+	 * @see #append(Order)
+	 */
+	void appendAll(List<Order> orders) {
+
+		Assert.notNull(orders, "Orders must not be null!");
+
+		if (!isEnabled()) {
+			this.orders.saveAll(orders);
+			return;
+		}
+
+		var recorded = orders.stream().map(OrderTransition::of).toList();
+
+		try {
+			transitions.saveAllAndFlush(recorded);
+		} catch (DataIntegrityViolationException o_O) {
+			throw new OptimisticLockingFailureException("Orders were transitioned concurrently!", o_O);
+		}
+
+		for (int i = 0; i < orders.size(); i++) {
+			orders.get(i).apply(recorded.get(i));
+		}
+	}
+
+	/**
+	 * Loads the {@link Order} with the given identifier in its current state.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	Optional<Order> load(OrderIdentifier identifier) {
+
+		Assert.notNull(identifier, "OrderIdentifier must not be null!");
+
+		return isEnabled() //
+				? orders.findReadOnlyById(identifier).map(this::replay)
+				: orders.findById(identifier);
+	}
+
+	/**
+	 * Loads the {@link Order}s with the given identifiers in their current state.
+	 *
+	 * @param identifiers must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	List<Order> load(Collection<OrderIdentifier> identifiers) {
+
+		Assert.notNull(identifiers, "OrderIdentifiers must not be null!");
+
+		if (!isEnabled()) {
+
+			var result = new ArrayList<Order>(identifiers.size());
+
+			orders.findAllById(identifiers).forEach(result::add);
+
+			return result;
+		}
+
+		return replay(orders.findReadOnlyByIdIn(identifiers));
+	}
+
+	/**
+	 * Returns all {@link Order}s currently in the given {@link OrderStatus}.
+	 *
+	 * @param status must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	List<Order> findBy(OrderStatus status) {
+
+		Assert.notNull(status, "OrderStatus must not be null!");
+
+		if (!isEnabled()) {
+			return orders.findByOrderStatus(status).toList();
+		}
+
+		// Candidates are the snapshots in the status and the orders transitioned into it since
+		var candidates = new LinkedHashSet<OrderIdentifier>();
+
+		orders.findByOrderStatus(status).forEach(it -> candidates.add(it.getId()));
+		transitions.findOrderIdsByStatus(status).forEach(it -> candidates.add(new OrderIdentifier(it)));
+
+		return load(candidates).stream() //
+				.filter(it -> it.getOrderStatus() == status) //
+				.toList();
+	}
+
+	/**
+	 * Applies all transitions recorded for the given {@link Order} that are not reflected in its state yet.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return the given {@link Order}.
+	 */
+	Order replay(Order order) {
+
+		Assert.notNull(order, "Order must not be null!");
+
+		replay(List.of(order));
+
+		return order;
+	}
+
+	/**
+	 * Applies all transitions recorded for the given {@link Order}s that are not reflected in their state yet. Looks up
+	 * the transitions with a single query.
+	 *
+	 * @param orders must not be {@literal null}.
+	 * @return the given {@link Order}s.
+	 */
+	List<Order> replay(List<Order> orders) {
+
+		Assert.notNull(orders, "Orders must not be null!");
+
+		if (!isEnabled() || orders.isEmpty()) {
+			return orders;
+		}
+
+		var byId = new HashMap<UUID, Order>(orders.size());
+
+		orders.forEach(it -> byId.put(it.getId().id(), it));
+
+		transitions.findByOrderIdInOrderBySequenceNumber(byId.keySet()) //
+				.forEach(it -> byId.get(it.getOrderId()).apply(it));
+
+		return orders;
+	}
+
+	@Async
+	@DomainEventHandler
+	void on(DayHasPassed event) {
+
+		if (!isEnabled()) {
+			return;
+		}
+
+		log.info("Compacted transitions of {} orders on {}.", compact(), event.getDate());
+	}
+
+	/**
+	 * Folds all recorded transitions into the {@link Order}s they belong to and removes them from the journal. Processes
+	 * the {@link Order}s in chunks of {@link OrderProperties#getBulkChunkSize()}, each in a dedicated transaction.
+	 *
+	 * @return the number of {@link Order}s updated.
+	 */
+	int compact() {
+
+		return shards.onAllShards(this::compactShard).stream() //
+				.mapToInt(Integer::intValue) //
+				.sum();
+	}
+
+	private int compactShard() {
+
+		var page = PageRequest.of(0, properties.getBulkChunkSize());
+		var total = 0;
+
+		for (;;) {
+
+			int compacted = retries.execute(() -> {
+
+				var ids = transitions.findOrderIds(page).getContent();
+
+				if (ids.isEmpty()) {
+					return 0;
+				}
+
+				var recorded = transitions.findByOrderIdInOrderBySequenceNumber(ids);
+				var byId = new HashMap<UUID, Order>(ids.size());
+
+				orders.findAllById(ids.stream().map(OrderIdentifier::new).toList()) //
+						.forEach(it -> byId.put(it.getId().id(), it));
+
+				// Transitions of orders deleted in the meantime are dropped
+				recorded.stream() //
+						.filter(it -> byId.containsKey(it.getOrderId())) //
+						.forEach(it -> byId.get(it.getOrderId()).apply(it));
+
+				transitions.deleteAll(recorded);
+
+				return ids.size();
+			});
+
+			if (compacted == 0) {
+				return total;
+			}
+
+			total += compacted;
+		}
+	}
+}
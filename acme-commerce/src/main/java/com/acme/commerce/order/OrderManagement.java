@@ -15,6 +15,8 @@
  */
 package com.acme.commerce.order;
 
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -22,6 +24,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 
+import com.acme.commerce.catalog.Product;
+import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.MetricMismatchException;
+import com.acme.commerce.core.Quantity;
+import com.acme.commerce.core.StatementBudget;
 import com.acme.commerce.customer.Customer.CustomerIdentifier;
 import com.acme.commerce.order.Order.OrderIdentifier;
 import com.acme.commerce.order.OrderEvents.OrderCanceled;
@@ -30,10 +37,17 @@ import com.acme.commerce.order.OrderEvents.OrderPaid;
 
 /**
  * A service to manage {@link Order}s.
+ * <p>
+ * If {@link Order}s are sharded across multiple databases (see {@link com.acme.commerce.core.ShardingProperties}),
+ * operations do not participate in a transaction of the caller anymore, as that is bound to a single database. They run
+ * in transactions of their own on the shard of the {@link Order}s' customer instead and their changes are committed
+ * even if the caller's transaction is rolled back later on. Bulk operations and operations by {@link OrderIdentifier}
+ * run on all shards in parallel and are only atomic per shard.
  *
  * @author Oliver Drotbohm
  */
 @Service
+@StatementBudget
 public interface OrderManagement {
 
 	/**
@@ -44,8 +58,28 @@ public interface OrderManagement {
 	 */
 	Order save(Order order);
 
+	/**
+	 * Creates and persists a new {@link Order} for the given customer containing the given {@link Product}s in the given
+	 * {@link Quantity}s. All {@link Product}s are looked up in a single query and the {@link LineItem}s are inserted in
+	 * JDBC batches, so that the number of database round trips doesn't depend on the number of lines.
+	 *
+	 * @param customer must not be {@literal null}.
+	 * @param lineItems the {@link Quantity}s to order by {@link ProductIdentifier}, must not be {@literal null} or empty.
+	 * @return the persisted {@link Order}, will never be {@literal null}.
+	 * @throws IllegalArgumentException in case any of the given {@link Product}s cannot be found.
+	 * @throws MetricMismatchException in case any of the {@link Product}s does not support the {@link Quantity} given for
+	 *           it.
+	 */
+	Order createOrder(CustomerIdentifier customer, Map<ProductIdentifier, Quantity> lineItems);
+
 	/**
 	 * Returns the order identified by an {@link OrderIdentifier}
+	 * <p>
+	 * Falls back to the {@link OrderArchive} for {@link Order}s not found in the database. Archived {@link Order}s are
+	 * read-only snapshots and must not be saved again.
+	 * <p>
+	 * Always reads from the primary database, even if a replica is configured, so that {@link Order}s are found right
+	 * after they have been written, e.g. by listeners reacting to the events of a transaction just committed.
 	 *
 	 * @param orderIdentifier identifier of the {@link Order} to be returned, must not be {@literal null}.
 	 * @return the order if the orderIdentifier matches, otherwise {@link Optional#empty()}.
@@ -62,7 +96,7 @@ public interface OrderManagement {
 
 	/**
 	 * Returns all {@link Order}s having the {@link OrderStatus} {@code status}. If no orders with the specified status
-	 * exist, an empty Iterable is returned.
+	 * exist, an empty Iterable is returned. Does not consider archived {@link Order}s.
 	 *
 	 * @param orderStatus Denoting the {@link OrderStatus} on which the {@link Order}s will be requested.
 	 * @return a {@link Streamable} containing all {@link Order}s with the specified {@link OrderStatus}
@@ -71,7 +105,7 @@ public interface OrderManagement {
 
 	/**
 	 * Returns all {@link Order}s of the given {@link UserAccount}. If this user has no orders, an empty {@link Iterable}
-	 * is returned.
+	 * is returned. Includes the customer's archived {@link Order}s.
 	 *
 	 * @param userAccount Denoting the {@link UserAccount} on which the orders will be requested, must not be
 	 *          {@literal null}.
@@ -80,16 +114,38 @@ public interface OrderManagement {
 	Streamable<Order> findBy(CustomerIdentifier userAccount);
 
 	/**
-	 * Tries to complete this order, the {@link OrderStatus} has to be {@link OrderStatus#PAID}.
+	 * Returns all {@link Order}s created in the given time frame (inclusive), including archived ones.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	Streamable<Order> findBy(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the most recent {@link OrderHistoryEntry}s of the {@link Order}s of the given customer. Served from a
+	 * dedicated index rather than the {@link Order}s themselves, that's maintained for every {@link Order} saved.
+	 *
+	 * @param customer must not be {@literal null}.
+	 * @param limit the maximum number of entries to return, must be greater than zero.
+	 * @return will never be {@literal null}.
+	 */
+	Streamable<OrderHistoryEntry> findHistory(CustomerIdentifier customer, int limit);
+
+	/**
+	 * Tries to complete this order, the {@link OrderStatus} has to be {@link OrderStatus#PAID}. The {@link Order} is
+	 * looked up again and transitioned in its current state, the given instance is not changed.
 	 *
 	 * @param order the order to complete, must not be {@literal null}.
 	 * @throws OrderCompletionFailure in case the order can't be completed.
 	 * @see OrderCompleted
 	 */
+	@StatementBudget(6)
 	void completeOrder(Order order) throws OrderCompletionFailure;
 
 	/**
 	 * Pays the {@link Order}, {@link OrderStatus} must be {@link OrderStatus#OPEN} and {@link PaymentMethod} must be set.
+	 * The {@link Order} is looked up again and transitioned in its current state, the given instance is not changed.
 	 *
 	 * @param order the order to be payed, must not be {@literal null}.
 	 * @return true if the order could be paid
@@ -98,7 +154,8 @@ public interface OrderManagement {
 	boolean payOrder(Order order);
 
 	/**
-	 * Cancels an {@link Order}, no matter what state it is in.
+	 * Cancels an {@link Order}, no matter what state it is in. The {@link Order} is looked up again and transitioned in
+	 * its current state, the given instance is not changed.
 	 *
 	 * @param order the order to be canceled, must not be {@literal null}.
 	 * @param reason the reason the order was cancelled.
@@ -107,6 +164,78 @@ public interface OrderManagement {
 	 */
 	boolean cancelOrder(Order order, String reason);
 
+	/**
+	 * Pays the {@link Order} with the given identifier if it's {@link OrderStatus#OPEN}. Doesn't load the {@link Order}
+	 * but issues a single conditional update. The {@link OrderPaid} event is published only if the {@link Order} was
+	 * actually paid. The statement budget assumes the journal to be disabled, as the {@link Order} has to be loaded to
+	 * record a transition in the journal.
+	 *
+	 * @param orderIdentifier the identifier of the order to be paid, must not be {@literal null}.
+	 * @return true if the order could be paid, false if it doesn't exist or is not open anymore.
+	 * @see OrderPaid
+	 */
+	@StatementBudget(2)
+	boolean payOrder(OrderIdentifier orderIdentifier);
+
+	/**
+	 * Completes the {@link Order} with the given identifier if it's {@link OrderStatus#PAID}. Doesn't load the
+	 * {@link Order} but issues a single conditional update. The {@link OrderCompleted} event published doesn't carry a
+	 * snapshot of the {@link LineItem}s, so that listeners look up the {@link Order} only if they need them. The
+	 * statement budget assumes the journal to be disabled.
+	 *
+	 * @param orderIdentifier the identifier of the order to be completed, must not be {@literal null}.
+	 * @return true if the order could be completed, false if it doesn't exist or is not paid.
+	 * @see OrderCompleted
+	 */
+	@StatementBudget(3)
+	boolean completeOrder(OrderIdentifier orderIdentifier);
+
+	/**
+	 * Cancels the {@link Order} with the given identifier unless it's already cancelled. Doesn't load the {@link Order}
+	 * but reads and locks its status and issues a single conditional update. The statement budget assumes the journal to
+	 * be disabled.
+	 *
+	 * @param orderIdentifier the identifier of the order to be canceled, must not be {@literal null}.
+	 * @param reason the reason the order was cancelled.
+	 * @return true if the order could be canceled, false if it doesn't exist or is already cancelled.
+	 * @see OrderCanceled
+	 */
+	@StatementBudget(6)
+	boolean cancelOrder(OrderIdentifier orderIdentifier, String reason);
+
+	/**
+	 * Pays all {@link Order}s with the given identifiers. The {@link Order}s are processed in chunks, each of them in a
+	 * dedicated transaction. The {@link OrderPaid} events are published per chunk.
+	 *
+	 * @param orderIdentifiers the identifiers of the orders to be paid, must not be {@literal null}. Use
+	 *          {@code stream::iterator} to hand in a {@link java.util.stream.Stream}.
+	 * @return a report of the outcome per order, will never be {@literal null}.
+	 * @see OrderPaid
+	 */
+	OrderTransitionReport payOrders(Iterable<OrderIdentifier> orderIdentifiers);
+
+	/**
+	 * Completes all {@link Order}s with the given identifiers. Only {@link Order}s in {@link OrderStatus#PAID} can be
+	 * completed. The {@link Order}s are processed in chunks, each of them in a dedicated transaction. The
+	 * {@link OrderCompleted} events are published per chunk.
+	 *
+	 * @param orderIdentifiers the identifiers of the orders to be completed, must not be {@literal null}.
+	 * @return a report of the outcome per order, will never be {@literal null}.
+	 * @see OrderCompleted
+	 */
+	OrderTransitionReport completeOrders(Iterable<OrderIdentifier> orderIdentifiers);
+
+	/**
+	 * Cancels all {@link Order}s with the given identifiers. The {@link Order}s are processed in chunks, each of them in
+	 * a dedicated transaction. The {@link OrderCanceled} events are published per chunk.
+	 *
+	 * @param orderIdentifiers the identifiers of the orders to be canceled, must not be {@literal null}.
+	 * @param reason the reason the orders were cancelled.
+	 * @return a report of the outcome per order, will never be {@literal null}.
+	 * @see OrderCanceled
+	 */
+	OrderTransitionReport cancelOrders(Iterable<OrderIdentifier> orderIdentifiers, String reason);
+
 	/**
 	 * Deletes the given {@link Order}.
 	 *
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Always-on metrics for {@link Order} state transitions. All meters are registered up front so that recording a
+ * measurement neither looks up meters nor allocates tags. Use {@link #start()} to obtain a timestamp before the
+ * transition and hand it into the corresponding {@code record…} method afterwards, alongside the
+ * {@link TransitionOutcome} so that rejected and failed transitions do not skew the latencies of successful ones.
+ * <p>
+ * The number of line items per completed {@link Order} ({@value #LINE_ITEMS}) can only be recorded for completions
+ * that load the {@link Order}. Completions by identifier with the journal disabled only issue a conditional update and
+ * are thus not included in that distribution, only in the transition latencies.
+ *
+ * @author Oliver Drotbohm
+ */
+@Component
+class OrderMetrics {
+
+	static final String TRANSITIONS = "acme.orders.transitions";
+	static final String LINE_ITEMS = "acme.orders.line-items";
+
+	private final Map<TransitionOutcome, Timer> payments, completions, cancellations;
+	private final DistributionSummary lineItems;
+
+	OrderMetrics(MeterRegistry registry) {
+
+		Assert.notNull(registry, "MeterRegistry must not be null!");
+
+		this.payments = transitionTimers("paid", registry);
+		this.completions = transitionTimers("completed", registry);
+		this.cancellations = transitionTimers("canceled", registry);
+
+		this.lineItems = DistributionSummary.builder(LINE_ITEMS) //
+				.description("Number of line items per completed order") //
+				.publishPercentileHistogram() //
+				.register(registry);
+	}
+
+	long start() {
+		return System.nanoTime();
+	}
+
+	void recordPayment(long start, TransitionOutcome outcome) {
+		record(payments, start, outcome);
+	}
+
+	void recordCompletion(long start, Order order) {
+
+		recordCompletion(start, TransitionOutcome.SUCCESS);
+		lineItems.record(order.getNumberOfLineItems());
+	}
+
+	void recordCompletion(long start, TransitionOutcome outcome) {
+		record(completions, start, outcome);
+	}
+
+	void recordCancellation(long start, TransitionOutcome outcome) {
+		record(cancellations, start, outcome);
+	}
+
+	private static void record(Map<TransitionOutcome, Timer> timers, long start, TransitionOutcome outcome) {
+		timers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private static Map<TransitionOutcome, Timer> transitionTimers(String transition, MeterRegistry registry) {
+
+		var timers = new EnumMap<TransitionOutcome, Timer>(TransitionOutcome.class);
+
+		for (TransitionOutcome outcome : TransitionOutcome.values()) {
+
+			timers.put(outcome, Timer.builder(TRANSITIONS) //
+					.description("Latency of order state transitions") //
+					.tag("transition", transition) //
+					.tag("outcome", outcome.tag) //
+					.publishPercentileHistogram() //
+					.register(registry));
+		}
+
+		return timers;
+	}
+
+	/**
+	 * The outcome of an {@link Order} state transition as recorded in the {@value OrderMetrics#TRANSITIONS} metric.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	enum TransitionOutcome {
+
+		/**
+		 * The {@link Order} was transitioned into the new state.
+		 */
+		SUCCESS("success"),
+
+		/**
+		 * The {@link Order} was not in a state to be transitioned.
+		 */
+		REJECTED("rejected"),
+
+		/**
+		 * The transition failed with an exception.
+		 */
+		FAILURE("failure");
+
+		private final String tag;
+
+		private TransitionOutcome(String tag) {
+			this.tag = tag;
+		}
+
+		/**
+		 * Returns the {@link TransitionOutcome} for the given result of a transition.
+		 *
+		 * @param transitioned whether the {@link Order} was transitioned.
+		 * @return will never be {@literal null}.
+		 */
+		static TransitionOutcome of(boolean transitioned) {
+			return transitioned ? SUCCESS : REJECTED;
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import lombok.Value;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+
+/**
+ * Properties to configure the order module. Declare {@code acme.commerce.order.…} in application properties to tweak
+ * settings.
+ *
+ * @author Oliver Drotbohm
+ */
+@Value
+@ConfigurationProperties("acme.commerce.order")
+class OrderProperties {
+
+	private static final int DEFAULT_BULK_CHUNK_SIZE = 500;
+
+	/**
+	 * The number of {@link Order}s to be processed in a single transaction by bulk operations.
+	 */
+	private int bulkChunkSize;
+
+	/**
+	 * Whether to record state transitions of {@link Order}s in the {@link OrderJournal} instead of updating the
+	 * {@link Order}s themselves.
+	 */
+	private boolean journal;
+
+	OrderProperties(@Nullable Integer bulkChunkSize, boolean journal) {
+
+		this.bulkChunkSize = bulkChunkSize == null ? DEFAULT_BULK_CHUNK_SIZE : bulkChunkSize;
+		this.journal = journal;
+	}
+}
@@ -15,15 +15,27 @@
  */
 package com.acme.commerce.order;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.acme.commerce.customer.Customer.CustomerIdentifier;
 import com.acme.commerce.order.Order.OrderIdentifier;
@@ -49,10 +61,74 @@ interface OrderRepository
 	Page<Order> findAll(Pageable pageable);
 
 	/**
+	 * Returns the {@link Order} with the given identifier loaded read-only, so that applying the transitions recorded in
+	 * the {@link OrderJournal} to it doesn't cause an update of the {@link Order}.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @return
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+	Optional<Order> findReadOnlyById(OrderIdentifier id);
+
+	/**
+	 * Returns the {@link Order}s with the given identifiers loaded read-only.
+	 *
+	 * @param ids must not be {@literal null}.
+	 * @return
+	 * @see #findReadOnlyById(OrderIdentifier)
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+	List<Order> findReadOnlyByIdIn(Collection<OrderIdentifier> ids);
+
+	/**
+	 * Returns the sequence number of the last {@link OrderTransition} folded into the {@link Order} with the given
+	 * identifier.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @return
+	 */
+	@Query("select o.journalSequence from #{#entityName} o where o.id = :id")
+	Optional<Long> findJournalSequenceById(OrderIdentifier id);
+
+	/**
+	 * Returns the {@link OrderStatus} of the {@link Order} with the given identifier and locks its row until the end of
+	 * the current transaction, so that a subsequent {@link #updateStatus(OrderIdentifier, Collection, OrderStatus)}
+	 * transitions it from exactly that status.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Transactional
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select o.orderStatus from #{#entityName} o where o.id = :id")
+	Optional<OrderStatus> findOrderStatusForUpdateById(OrderIdentifier id);
+
+	/**
+	 * Transitions the {@link Order} with the given identifier into the given target {@link OrderStatus} if it's currently
+	 * in one of the given source ones. Increments the version so that concurrent changes to loaded instances of the
+	 * {@link Order} are detected. Flushes pending changes before and clears the persistence context after the update, so
+	 * that {@link Order}s managed in the current transaction don't keep serving the previous status.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @param sources must not be {@literal null} or empty.
+	 * @param target must not be {@literal null}.
+	 * @return the number of {@link Order}s updated, i.e. zero or one.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Transactional
+	@Query("update #{#entityName} o set o.orderStatus = :target, o.version = o.version + 1 "
+			+ "where o.id = :id and o.orderStatus in :sources")
+	int updateStatus(OrderIdentifier id, Collection<OrderStatus> sources, OrderStatus target);
+
+	/**
+	 * Returns all {@link Order}s created in the given time frame. Meant for reporting, thus loads the {@link Order}s
+	 * read-only.
+	 *
 	 * @param from
 	 * @param to
 	 * @return
 	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
 	Streamable<Order> findByDateCreatedBetween(LocalDateTime from, LocalDateTime to);
 
 	/**
@@ -61,6 +137,18 @@ interface OrderRepository
 	 */
 	Streamable<Order> findByOrderStatus(OrderStatus orderStatus);
 
+	/**
+	 * Returns a slice of the {@link Order}s in any of the given {@link OrderStatus}es created before the given date.
+	 * Used to look up the {@link Order}s to archive.
+	 *
+	 * @param orderStatus must not be {@literal null}.
+	 * @param date must not be {@literal null}.
+	 * @param pageable must not be {@literal null}.
+	 * @return
+	 */
+	Slice<Order> findByOrderStatusInAndDateCreatedBefore(Collection<OrderStatus> orderStatus, LocalDateTime date,
+			Pageable pageable);
+
 	/**
 	 * @param userAccount
 	 * @return
@@ -68,11 +156,15 @@ interface OrderRepository
 	Streamable<Order> findByCustomer(CustomerIdentifier userAccount);
 
 	/**
+	 * Returns all {@link Order}s of the given customer created in the given time frame. Meant for reporting, thus loads
+	 * the {@link Order}s read-only.
+	 *
 	 * @param userAccount
 	 * @param from
 	 * @param to
 	 * @return
 	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
 	Streamable<Order> findByCustomerAndDateCreatedBetween(CustomerIdentifier userAccount, LocalDateTime from,
 			LocalDateTime to);
 }
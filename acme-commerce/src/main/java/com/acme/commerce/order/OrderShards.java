@@ -0,0 +1,216 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.acme.commerce.core.ShardingProperties;
+import com.acme.commerce.core.Shards;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+
+/**
+ * Places {@link Order}s on the shards configured via {@link ShardingProperties} by hashing their
+ * {@link CustomerIdentifier}. Operations for a single customer are executed on that customer's shard, all others are
+ * executed on all shards in parallel. Without additional shards configured, all callbacks are executed as is on the
+ * calling thread.
+ * <p>
+ * As a transaction is bound to the database it issued its first statement against, sharded callbacks are executed
+ * outside of any transaction running already, i.e. suspending it on the calling thread and on a pool thread for
+ * {@link #onAllShards(Supplier)}. The callbacks are not wrapped into a transaction themselves but have to start the
+ * ones they need, e.g. via {@link com.acme.commerce.core.OptimisticLockingRetries} or by invoking a single repository
+ * method, so that these are bound to the shard. Everything that needs to be atomic thus has to be executed within one
+ * of those transactions. Changes made by callbacks are committed independently of the caller's transaction.
+ * <p>
+ * The pool executing {@link #onAllShards(Supplier)} has one thread per shard and a bounded queue. Callers wait for the
+ * results for at most {@value #FAN_OUT_TIMEOUT_SECONDS} seconds, as a caller running a transaction keeps its
+ * connection while the pool threads need connections of their own. The pool is exposed as
+ * {@value #EXECUTOR_NAME} executor metrics.
+ *
+ * @author Oliver Drotbohm
+ */
+@Component
+class OrderShards implements DisposableBean {
+
+	static final String EXECUTOR_NAME = "acme.orders.shards";
+
+	private static final int FAN_OUT_TIMEOUT_SECONDS = 30;
+	private static final int MAX_QUEUED_FAN_OUTS = 64;
+
+	private final int numberOfShards;
+	private final TransactionTemplate transactions;
+	private final @Nullable ExecutorService executor;
+
+	OrderShards(ShardingProperties properties, PlatformTransactionManager transactionManager, MeterRegistry registry) {
+
+		this.numberOfShards = properties.getNumberOfShards();
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+		this.executor = properties.isSharded() ? createExecutor(numberOfShards, registry) : null;
+	}
+
+	/**
+	 * Returns whether {@link Order}s are distributed across multiple shards.
+	 *
+	 * @return
+	 */
+	boolean isSharded() {
+		return executor != null;
+	}
+
+	/**
+	 * Returns the shard the {@link Order}s of the given customer are located on.
+	 *
+	 * @param customer must not be {@literal null}.
+	 * @return
+	 */
+	int getShardFor(CustomerIdentifier customer) {
+
+		Assert.notNull(customer, "CustomerIdentifier must not be null!");
+
+		return Math.floorMod(customer.id().hashCode(), numberOfShards);
+	}
+
+	/**
+	 * Executes the given callback on the shard of the given customer. Executes it as is if that shard is already bound
+	 * to the current thread. Suspends a currently running transaction otherwise, so that the callback has to start the
+	 * transactions it needs itself.
+	 *
+	 * @param customer must not be {@literal null}.
+	 * @param callback must not be {@literal null}.
+	 * @return the result of the callback.
+	 */
+	<T> T onShardOf(CustomerIdentifier customer, Supplier<T> callback) {
+
+		Assert.notNull(callback, "Callback must not be null!");
+
+		if (executor == null) {
+			return callback.get();
+		}
+
+		var shard = getShardFor(customer);
+
+		if (Integer.valueOf(shard).equals(Shards.current())) {
+			return callback.get();
+		}
+
+		return Shards.on(shard, () -> transactions.execute(__ -> callback.get()));
+	}
+
+	/**
+	 * Executes the given callback on all shards in parallel. The callback is executed on pool threads outside of any
+	 * transaction and has to start the transactions it needs itself.
+	 *
+	 * @param callback must not be {@literal null}.
+	 * @return the results of the callback per shard, will never be {@literal null}.
+	 * @throws RejectedExecutionException in case too many fan-outs are pending already.
+	 * @throws IllegalStateException in case the shards didn't respond in time.
+	 */
+	<T> List<T> onAllShards(Supplier<T> callback) {
+
+		Assert.notNull(callback, "Callback must not be null!");
+
+		if (executor == null) {
+			return Collections.singletonList(callback.get());
+		}
+
+		var futures = new ArrayList<Future<T>>(numberOfShards);
+		var results = new ArrayList<T>(numberOfShards);
+		var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(FAN_OUT_TIMEOUT_SECONDS);
+
+		try {
+
+			for (int i = 0; i < numberOfShards; i++) {
+
+				var shard = i;
+
+				futures.add(executor.submit(() -> Shards.on(shard, callback)));
+			}
+
+			for (Future<T> future : futures) {
+				results.add(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+			}
+
+		} catch (InterruptedException o_O) {
+
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for shards!", o_O);
+
+		} catch (TimeoutException o_O) {
+
+			throw new IllegalStateException(
+					"Shards did not respond within %s seconds!".formatted(FAN_OUT_TIMEOUT_SECONDS), o_O);
+
+		} catch (ExecutionException o_O) {
+
+			if (o_O.getCause() instanceof RuntimeException exception) {
+				throw exception;
+			}
+
+			throw new IllegalStateException(o_O.getCause());
+
+		} finally {
+
+			// No-op for completed ones, frees the pool from the remaining ones in case of failures
+			futures.forEach(it -> it.cancel(true));
+		}
+
+		return results;
+	}
+
+	private static ExecutorService createExecutor(int numberOfShards, MeterRegistry registry) {
+
+		var queue = new ArrayBlockingQueue<Runnable>(numberOfShards * MAX_QUEUED_FAN_OUTS);
+		var executor = new ThreadPoolExecutor(numberOfShards, numberOfShards, 0, TimeUnit.MILLISECONDS, queue,
+				new CustomizableThreadFactory("order-shards-"));
+
+		return ExecutorServiceMetrics.monitor(registry, executor, EXECUTOR_NAME);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	@Override
+	public void destroy() {
+
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+}
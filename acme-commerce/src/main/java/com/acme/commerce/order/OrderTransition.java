@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.jmolecules.ddd.types.AggregateRoot;
+import org.jmolecules.ddd.types.Identifier;
+import org.springframework.data.domain.AbstractAggregateRoot;
+
+import com.acme.commerce.core.Identifiers;
+import com.acme.commerce.order.OrderTransition.OrderTransitionIdentifier;
+
+/**
+ * An entry of the {@link OrderJournal}, i.e. the {@link OrderStatus} an {@link Order} has been transitioned into. Carries
+ * the events the {@link Order} registered for the transition so that they're published on insertion. The combination of
+ * {@link Order} and sequence number is unique to detect concurrent transitions of the same {@link Order}.
+ *
+ * @author Oliver Drotbohm
+ */
+@Getter
+@ToString(doNotUseGetters = true)
+@Table(name = "ORDER_TRANSITIONS", uniqueConstraints = @UniqueConstraint(name = "UK_ORDER_TRANSITIONS_SEQUENCE",
+		columnNames = { "order_id", "sequence_number" }))
+class OrderTransition extends AbstractAggregateRoot<OrderTransition>
+		implements AggregateRoot<OrderTransition, OrderTransitionIdentifier> {
+
+	private final OrderTransitionIdentifier id;
+	private final UUID orderId;
+	private final long sequenceNumber;
+	private final @Enumerated(EnumType.STRING) OrderStatus status;
+	private final LocalDateTime dateCreated;
+
+	private OrderTransition(Order order) {
+
+		this.id = new OrderTransitionIdentifier(Identifiers.next());
+		this.orderId = order.getId().id();
+		this.sequenceNumber = order.getJournalSequence() + 1;
+		this.status = order.getOrderStatus();
+		this.dateCreated = LocalDateTime.now();
+
+		order.pullDomainEvents().forEach(this::registerEvent);
+	}
+
+	/**
+	 * Creates a new {@link OrderTransition} for the current state of the given {@link Order} and takes over the events
+	 * registered by it.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static OrderTransition of(Order order) {
+		return new OrderTransition(order);
+	}
+
+	record OrderTransitionIdentifier(UUID id) implements Identifier {}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import lombok.ToString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.util.Streamable;
+import org.springframework.util.Assert;
+
+import com.acme.commerce.order.Order.OrderIdentifier;
+
+/**
+ * A report of the outcome of a bulk state transition of {@link Order}s.
+ *
+ * @author Oliver Drotbohm
+ * @see OrderManagement#payOrders(Iterable)
+ * @see OrderManagement#completeOrders(Iterable)
+ * @see OrderManagement#cancelOrders(Iterable, String)
+ */
+@ToString
+public class OrderTransitionReport {
+
+	private final Map<OrderIdentifier, Outcome> outcomes = new LinkedHashMap<>();
+
+	/**
+	 * Registers the given {@link Outcome} for the {@link Order} with the given identifier.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @param outcome must not be {@literal null}.
+	 */
+	void register(OrderIdentifier identifier, Outcome outcome) {
+
+		Assert.notNull(identifier, "OrderIdentifier must not be null!");
+		Assert.notNull(outcome, "Outcome must not be null!");
+
+		outcomes.put(identifier, outcome);
+	}
+
+	/**
+	 * Returns the {@link Outcome} for the {@link Order} with the given identifier.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Optional<Outcome> getOutcome(OrderIdentifier identifier) {
+
+		Assert.notNull(identifier, "OrderIdentifier must not be null!");
+
+		return Optional.ofNullable(outcomes.get(identifier));
+	}
+
+	/**
+	 * Returns the identifiers of all {@link Order}s with the given {@link Outcome}.
+	 *
+	 * @param outcome must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Streamable<OrderIdentifier> getOrders(Outcome outcome) {
+
+		Assert.notNull(outcome, "Outcome must not be null!");
+
+		return Streamable.of(() -> outcomes.entrySet().stream() //
+				.filter(it -> it.getValue() == outcome) //
+				.map(Map.Entry::getKey));
+	}
+
+	/**
+	 * Returns the number of {@link Order}s with the given {@link Outcome}.
+	 *
+	 * @param outcome must not be {@literal null}.
+	 * @return
+	 */
+	public long count(Outcome outcome) {
+		return getOrders(outcome).stream().count();
+	}
+
+	/**
+	 * Returns whether all {@link Order}s were transitioned successfully.
+	 *
+	 * @return
+	 */
+	public boolean isSuccessful() {
+		return outcomes.values().stream().allMatch(Outcome.TRANSITIONED::equals);
+	}
+
+	/**
+	 * The outcome of the state transition of an individual {@link Order}.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	public enum Outcome {
+
+		/**
+		 * The {@link Order} was transitioned and the corresponding event published.
+		 */
+		TRANSITIONED,
+
+		/**
+		 * The {@link Order} was not in a state that allows the transition.
+		 */
+		REJECTED,
+
+		/**
+		 * No {@link Order} with the given identifier was found.
+		 */
+		NOT_FOUND,
+
+		/**
+		 * The transition of the {@link Order} failed or the chunk it was processed in failed to be persisted.
+		 */
+		FAILED;
+	}
+}
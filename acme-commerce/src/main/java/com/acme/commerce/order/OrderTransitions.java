@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import com.acme.commerce.order.OrderTransition.OrderTransitionIdentifier;
+
+/**
+ * Repository interface for {@link OrderTransition}s.
+ *
+ * @author Oliver Drotbohm
+ */
+interface OrderTransitions extends CrudRepository<OrderTransition, OrderTransitionIdentifier> {
+
+	/**
+	 * Saves the given {@link OrderTransition} and flushes it immediately so that a concurrent transition of the same
+	 * {@link Order} is detected right away.
+	 *
+	 * @param transition must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	OrderTransition saveAndFlush(OrderTransition transition);
+
+	/**
+	 * Saves the given {@link OrderTransition}s and flushes them immediately.
+	 *
+	 * @param transitions must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @see #saveAndFlush(OrderTransition)
+	 */
+	List<OrderTransition> saveAllAndFlush(Iterable<OrderTransition> transitions);
+
+	/**
+	 * Returns all {@link OrderTransition}s of the {@link Order}s with the given identifiers in the order they were
+	 * recorded in.
+	 *
+	 * @param orderIds must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	List<OrderTransition> findByOrderIdInOrderBySequenceNumber(Collection<UUID> orderIds);
+
+	/**
+	 * Returns the identifiers of all {@link Order}s that have been transitioned into the given {@link OrderStatus}.
+	 *
+	 * @param status must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select distinct t.orderId from OrderTransition t where t.status = :status")
+	List<UUID> findOrderIdsByStatus(OrderStatus status);
+
+	/**
+	 * Returns a slice of the identifiers of the {@link Order}s with {@link OrderTransition}s recorded.
+	 *
+	 * @param pageable must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select distinct t.orderId from OrderTransition t")
+	Slice<UUID> findOrderIds(Pageable pageable);
+}
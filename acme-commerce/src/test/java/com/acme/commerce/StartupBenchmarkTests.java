@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce;
+
+import static org.assertj.core.api.Assertions.*;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.order.Order;
+import com.acme.commerce.order.OrderManagement;
+
+/**
+ * Measures the time from bootstrapping the application until the first {@link Order} has been stored and looked up
+ * again. Appends the result to {@value #RESULTS} so that it can be archived and compared per build. Excluded from the
+ * default build, run with {@code mvn test -Paot} to measure the ahead-of-time processed application or with
+ * {@code mvn test -Dgroups=startup -DexcludedGroups=} for the regular one.
+ *
+ * @author Oliver Drotbohm
+ */
+@Slf4j
+@Tag("startup")
+class StartupBenchmarkTests {
+
+	private static final String RESULTS = "target/startup-benchmark.csv";
+
+	@Test
+	void measuresTimeToFirstOrder() throws IOException {
+
+		var mode = AotDetector.useGeneratedArtifacts() ? "aot" : "regular";
+		var start = System.nanoTime();
+
+		try (var context = new SpringApplicationBuilder(AcmeCommerce.class) //
+				.properties("server.port=0") //
+				.run()) {
+
+			var started = Duration.ofNanos(System.nanoTime() - start);
+			var orders = context.getBean(OrderManagement.class);
+			var order = orders.save(new Order(new CustomerIdentifier(UUID.randomUUID())));
+
+			assertThat(orders.get(order.getId())).isPresent();
+
+			var firstOrder = Duration.ofNanos(System.nanoTime() - start);
+
+			log.info("Started {} application in {}ms, first order served after {}ms.", mode, started.toMillis(),
+					firstOrder.toMillis());
+
+			Files.writeString(Path.of(RESULTS),
+					"%s,%s,%d,%d%n".formatted(Instant.now(), mode, started.toMillis(), firstOrder.toMillis()),
+					StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		}
+	}
+}
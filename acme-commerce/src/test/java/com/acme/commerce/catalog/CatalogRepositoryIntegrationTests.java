@@ -19,6 +19,9 @@ import static org.assertj.core.api.Assertions.*;
 
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.javamoney.moneta.Money;
 import org.junit.jupiter.api.Test;
 import org.springframework.modulith.test.ApplicationModuleTest;
@@ -26,6 +29,7 @@ import org.springframework.modulith.test.Scenario;
 
 import com.acme.commerce.catalog.Product.ProductAdded;
 import com.acme.commerce.core.Currencies;
+import com.acme.commerce.core.StatementStatistics;
 
 /**
  * Integration tests for {@link Catalog}.
@@ -48,4 +52,30 @@ class CatalogRepositoryIntegrationTests {
 					assertThat(catalog.findById(it.getId())).isPresent();
 				});
 	}
+
+	@Test
+	void insertsProductsAndCategoriesInBatches() {
+
+		// 20 products with two categories each keep every table within a single batch of 50 rows
+		var single = StatementStatistics.measure(() -> catalog.saveAll(createProducts(1)));
+		var multiple = StatementStatistics.measure(() -> catalog.saveAll(createProducts(20)));
+
+		assertThat(multiple.statements()).isEqualTo(single.statements());
+	}
+
+	private static List<Product> createProducts(int numberOfProducts) {
+
+		var products = new ArrayList<Product>(numberOfProducts);
+
+		for (int i = 0; i < numberOfProducts; i++) {
+
+			var product = new Product("Product " + i, Money.of(10, Currencies.EURO));
+			product.addCategory("first");
+			product.addCategory("second");
+
+			products.add(product);
+		}
+
+		return products;
+	}
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link IdentifierGenerator}.
+ *
+ * @author Oliver Drotbohm
+ */
+class IdentifierGeneratorUnitTests {
+
+	@Test
+	void createsVersion7Uuids() {
+
+		var uuid = IdentifierGenerator.TIME_ORDERED.generate();
+
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(uuid.variant()).isEqualTo(2);
+		assertThat(uuid.getMostSignificantBits() >>> 16).isCloseTo(System.currentTimeMillis(), within(1000L));
+	}
+
+	@Test
+	void ordersUuidsByCreationTime() throws Exception {
+
+		var first = IdentifierGenerator.TIME_ORDERED.generate();
+
+		Thread.sleep(2);
+
+		var second = IdentifierGenerator.TIME_ORDERED.generate();
+
+		assertThat(Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits())).isNegative();
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Unit tests for {@link OptimisticLockingRetries}.
+ *
+ * @author Oliver Drotbohm
+ */
+class OptimisticLockingRetriesUnitTests {
+
+	OptimisticLockingRetries retries = new OptimisticLockingRetries(TransactionOperations.withoutTransaction(), 3,
+			Duration.ofMillis(1));
+
+	@Test
+	void retriesOptimisticLockingFailures() {
+
+		var attempts = new AtomicInteger();
+
+		var result = retries.execute(() -> {
+
+			if (attempts.incrementAndGet() < 3) {
+				throw new OptimisticLockingFailureException("Conflict!");
+			}
+
+			return "result";
+		});
+
+		assertThat(result).isEqualTo("result");
+		assertThat(attempts).hasValue(3);
+	}
+
+	@Test
+	void usesRetryCallbackForSubsequentAttempts() {
+
+		var result = retries.execute(() -> {
+			throw new OptimisticLockingFailureException("Conflict!");
+		}, () -> "retried");
+
+		assertThat(result).isEqualTo("retried");
+	}
+
+	@Test
+	void rethrowsFailureOnceAttemptsAreExhausted() {
+
+		var attempts = new AtomicInteger();
+
+		assertThatExceptionOfType(OptimisticLockingFailureException.class).isThrownBy(() -> retries.run(() -> {
+			attempts.incrementAndGet();
+			throw new OptimisticLockingFailureException("Conflict!");
+		}));
+
+		assertThat(attempts).hasValue(3);
+	}
+
+	@Test
+	void doesNotRetryOtherExceptions() {
+
+		var attempts = new AtomicInteger();
+
+		assertThatIllegalStateException().isThrownBy(() -> retries.run(() -> {
+			attempts.incrementAndGet();
+			throw new IllegalStateException();
+		}));
+
+		assertThat(attempts).hasValue(1);
+	}
+}
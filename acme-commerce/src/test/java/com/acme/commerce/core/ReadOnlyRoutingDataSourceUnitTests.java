@@ -0,0 +1,58 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Unit tests for {@link ReadOnlyRoutingDataSource} using a second in-memory H2 database as stand-in for the replica.
+ *
+ * @author Oliver Drotbohm
+ */
+class ReadOnlyRoutingDataSourceUnitTests {
+
+	static final String QUERY = "select database()";
+
+	DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary");
+	DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica");
+
+	JdbcTemplate jdbc = new JdbcTemplate(ReadOnlyRoutingDataSource.wrap(primary, replica));
+	TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+
+	@Test
+	void routesReadOnlyTransactionsToReplica() {
+
+		transactions.setReadOnly(true);
+
+		assertThat(transactions.execute(__ -> jdbc.queryForObject(QUERY, String.class))).isEqualToIgnoringCase("replica");
+	}
+
+	@Test
+	void routesReadWriteTransactionsToPrimary() {
+		assertThat(transactions.execute(__ -> jdbc.queryForObject(QUERY, String.class))).isEqualToIgnoringCase("primary");
+	}
+
+	@Test
+	void routesNonTransactionalAccessToPrimary() {
+		assertThat(jdbc.queryForObject(QUERY, String.class)).isEqualToIgnoringCase("primary");
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.core;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link StatementStatistics}.
+ *
+ * @author Oliver Drotbohm
+ */
+class StatementStatisticsUnitTests {
+
+	@Test
+	void includesStatementsOfNestedMeasurements() {
+
+		var outer = StatementStatistics.measure(() -> {
+
+			StatementStatistics.statementExecuted(1);
+
+			var inner = StatementStatistics.measure(() -> StatementStatistics.statementExecuted(1));
+
+			assertThat(inner.statements()).isEqualTo(1);
+		});
+
+		assertThat(outer.statements()).isEqualTo(2);
+	}
+
+	@Test
+	void rejectsFirstStatementExceedingBudget() {
+
+		var frame = StatementStatistics.open(1, it -> new IllegalStateException(it.statements() + " statements"));
+
+		try {
+
+			StatementStatistics.statementExecuted(1);
+			StatementStatistics.verifyBudgets();
+
+			StatementStatistics.statementExecuted(1);
+
+			assertThatIllegalStateException() //
+					.isThrownBy(StatementStatistics::verifyBudgets) //
+					.withMessage("2 statements");
+
+			StatementStatistics.statementExecuted(1);
+			StatementStatistics.verifyBudgets();
+
+		} finally {
+			assertThat(StatementStatistics.close(frame).statements()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	void doesNotRejectStatementsOfUnlimitedMeasurements() {
+
+		var frame = StatementStatistics.open();
+
+		try {
+
+			StatementStatistics.statementExecuted(1);
+			StatementStatistics.verifyBudgets();
+
+		} finally {
+			StatementStatistics.close(frame);
+		}
+	}
+}
@@ -15,17 +15,95 @@
  */
 package com.acme.commerce.customer;
 
+import static org.assertj.core.api.Assertions.*;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.jmolecules.ddd.types.Association;
 import org.junit.jupiter.api.Test;
 import org.springframework.modulith.test.ApplicationModuleTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.commerce.core.StatementStatistics;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.customer.CustomerStreams.Partition;
 
 /**
  * @author Oliver Drotbohm
  */
 @ApplicationModuleTest
+@RequiredArgsConstructor
 class CustomerModuleTests {
 
+	private final CustomerRepository customers;
+	private final CustomerResolver resolver;
+	private final CustomerStreams streams;
+	private final PlatformTransactionManager transactionManager;
+
 	@Test
 	void bootstrapsModule() {
 
 	}
+
+	@Test
+	void resolvesCustomersInBatchAndEvictsChangedOnes() {
+
+		var first = customers.save(new Customer("Some address"));
+		var second = customers.save(new Customer("Some other address"));
+		var associations = List.of(Association.forAggregate(first), Association.forAggregate(second));
+
+		resolver.evictAll();
+
+		var initial = StatementStatistics.measure(() -> assertThat(resolver.resolve(associations)).hasSize(2));
+		var cached = StatementStatistics.measure(() -> assertThat(resolver.resolve(associations)).hasSize(2));
+
+		assertThat(initial.statements()).isEqualTo(1);
+		assertThat(cached.statements()).isZero();
+
+		customers.delete(first);
+
+		assertThat(resolver.resolve(associations)).containsOnlyKeys(second.getId());
+	}
+
+	@Test
+	void cachesCustomersResolvedInTransactionOnlyOnceCommitted() {
+
+		var association = Association.forAggregate(customers.save(new Customer("Some address")));
+
+		resolver.evictAll();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(__ -> {
+
+			resolver.resolve(association);
+
+			var uncommitted = StatementStatistics.measure(() -> assertThat(resolver.resolve(association)).isPresent());
+
+			assertThat(uncommitted.statements()).isEqualTo(1);
+		});
+
+		var committed = StatementStatistics.measure(() -> assertThat(resolver.resolve(association)).isPresent());
+
+		assertThat(committed.statements()).isZero();
+	}
+
+	@Test
+	void streamsAllCustomersAcrossPartitions() {
+
+		var saved = IntStream.range(0, 20) //
+				.mapToObj(it -> customers.save(new Customer("Address " + it)).getId()) //
+				.toList();
+
+		Set<CustomerIdentifier> streamed = ConcurrentHashMap.newKeySet();
+
+		streams.forEachInParallel(4, it -> assertThat(streamed.add(it.getId())).isTrue());
+
+		assertThat(streamed).containsAll(saved);
+		assertThat(Partition.split(4)).hasSize(4).last().satisfies(it -> assertThat(it.to()).isNull());
+	}
 }
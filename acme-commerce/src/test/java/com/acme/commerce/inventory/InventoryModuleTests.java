@@ -19,7 +19,9 @@ import static org.assertj.core.api.Assertions.*;
 
 import lombok.RequiredArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -29,8 +31,15 @@ import org.springframework.modulith.test.Scenario;
 
 import com.acme.commerce.catalog.Product.ProductAdded;
 import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.Metric;
+import com.acme.commerce.core.Quantity;
 import com.acme.commerce.inventory.InventoryItem.InventoryItemAdded;
+import com.acme.commerce.order.Order.OrderIdentifier;
+import com.acme.commerce.order.OrderEvents.LineItemSnapshot;
+import com.acme.commerce.order.OrderEvents.OrderCanceled;
+import com.acme.commerce.order.OrderEvents.OrderCompleted;
 import com.acme.commerce.order.OrderManagement;
+import com.acme.commerce.order.OrderStatus;
 
 /**
  * @author Oliver Drotbohm
@@ -57,4 +66,26 @@ class InventoryModuleTests {
 					assertThat(inventory.findById(it.id())).isPresent();
 				});
 	}
+
+	@Test
+	void restoresStockForCanceledCompletedOrder(Scenario scenario) {
+
+		var productId = new ProductIdentifier(UUID.randomUUID());
+		var orderId = new OrderIdentifier(UUID.randomUUID());
+		var lineItems = List.of(new LineItemSnapshot(productId, BigDecimal.valueOf(3), Metric.UNIT));
+
+		inventory.save(new InventoryItem(productId, Quantity.of(10)));
+
+		scenario.publish(new OrderCompleted(orderId, lineItems))
+				.andWaitForStateChange(() -> getQuantity(productId), it -> it.isEqualTo(Quantity.of(7)))
+				.andVerify(it -> assertThat(it.isEqualTo(Quantity.of(7))).isTrue());
+
+		scenario.publish(new OrderCanceled(orderId, "Changed my mind", OrderStatus.COMPLETED, lineItems))
+				.andWaitForStateChange(() -> getQuantity(productId), it -> it.isEqualTo(Quantity.of(10)))
+				.andVerify(it -> assertThat(it.isEqualTo(Quantity.of(10))).isTrue());
+	}
+
+	private Quantity getQuantity(ProductIdentifier productId) {
+		return inventory.findByProductIdentifier(productId).map(InventoryItem::getQuantity).orElseThrow();
+	}
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects latencies of a single step of the order lifecycle from multiple threads and calculates percentiles from
+ * them.
+ *
+ * @author Oliver Drotbohm
+ */
+class Latencies {
+
+	private final ConcurrentLinkedQueue<Long> nanos = new ConcurrentLinkedQueue<>();
+
+	void record(long nanos) {
+		this.nanos.add(nanos);
+	}
+
+	int count() {
+		return nanos.size();
+	}
+
+	/**
+	 * Returns the latency at the given percentile.
+	 *
+	 * @param percentile between 0 and 1.
+	 * @return will never be {@literal null}.
+	 */
+	Duration percentile(double percentile) {
+
+		var sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+
+		if (sorted.length == 0) {
+			return Duration.ZERO;
+		}
+
+		Arrays.sort(sorted);
+
+		var index = (int) Math.ceil(percentile * sorted.length) - 1;
+
+		return Duration.ofNanos(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "n=%d, p50=%dms, p95=%dms, p99=%dms, max=%dms".formatted(count(), percentile(0.5).toMillis(),
+				percentile(0.95).toMillis(), percentile(0.99).toMillis(), percentile(1).toMillis());
+	}
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.load;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.javamoney.moneta.Money;
+import org.springframework.modulith.events.EventPublicationRegistry;
+import org.springframework.util.Assert;
+
+import com.acme.commerce.catalog.Catalog;
+import com.acme.commerce.catalog.Product;
+import com.acme.commerce.core.Currencies;
+import com.acme.commerce.core.Quantity;
+import com.acme.commerce.customer.Customer;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.customer.CustomerRepository;
+import com.acme.commerce.inventory.Inventory;
+import com.acme.commerce.order.Order;
+import com.acme.commerce.order.Order.OrderIdentifier;
+import com.acme.commerce.order.OrderCompletionFailure;
+import com.acme.commerce.order.OrderManagement;
+
+/**
+ * Seeds products, stock and customers and drives concurrent order lifecycles (create, pay, complete and optionally
+ * cancel) through {@link OrderManagement}. Each step looks up the {@link Order} by identifier first, just like a
+ * request would. If a rate is configured, lifecycles are started on a fixed schedule and their latency is measured
+ * from the scheduled start so that a system falling behind shows up in the latencies instead of being hidden by the
+ * generator slowing down.
+ *
+ * @author Oliver Drotbohm
+ */
+@Slf4j
+@RequiredArgsConstructor
+class LoadGenerator {
+
+	private static final String STOCK_CHECK_FAILURES = "acme.inventory.stock-check.failures";
+	private static final Duration SEED_TIMEOUT = Duration.ofSeconds(30);
+	private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+	private final OrderManagement orders;
+	private final Catalog catalog;
+	private final Inventory inventory;
+	private final CustomerRepository customers;
+	private final EventPublicationRegistry publications;
+	private final MeterRegistry registry;
+
+	/**
+	 * Seeds and runs the given {@link LoadProfile}.
+	 *
+	 * @param profile must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	LoadReport run(LoadProfile profile) throws InterruptedException {
+
+		Assert.notNull(profile, "LoadProfile must not be null!");
+
+		var products = seedProducts(profile);
+		var customers = seedCustomers(profile);
+
+		var latencies = new LinkedHashMap<String, Latencies>();
+		List.of("lifecycle", "create", "pay", "complete", "cancel").forEach(it -> latencies.put(it, new Latencies()));
+
+		var completionFailures = new AtomicLong();
+		var errors = new AtomicLong();
+		var maxBacklog = new AtomicLong();
+		var initialBacklog = backlog();
+		var initialAsyncFailures = asyncCompletionFailures();
+
+		var executor = Executors.newFixedThreadPool(profile.concurrency());
+		var sampler = Executors.newSingleThreadScheduledExecutor();
+
+		sampler.scheduleAtFixedRate(() -> maxBacklog.accumulateAndGet(backlog() - initialBacklog, Math::max), 0, 100,
+				TimeUnit.MILLISECONDS);
+
+		var interval = profile.ratePerSecond() > 0 ? TimeUnit.SECONDS.toNanos(1) / profile.ratePerSecond() : 0;
+		var start = System.nanoTime();
+
+		for (int i = 0; i < profile.orders(); i++) {
+
+			var scheduled = start + i * interval;
+
+			executor.execute(() -> {
+
+				LockSupport.parkNanos(scheduled - System.nanoTime());
+
+				try {
+					lifecycle(profile, products, customers, latencies);
+				} catch (OrderCompletionFailure o_O) {
+					completionFailures.incrementAndGet();
+				} catch (RuntimeException o_O) {
+					log.debug("Order lifecycle failed!", o_O);
+					errors.incrementAndGet();
+				} finally {
+					latencies.get("lifecycle").record(System.nanoTime() - scheduled);
+				}
+			});
+		}
+
+		shutdown(executor);
+
+		var duration = Duration.ofNanos(System.nanoTime() - start);
+		var drainStart = System.nanoTime();
+		var deadline = drainStart + profile.drainTimeout().toNanos();
+
+		// Failed inventory checks leave their publication incomplete for good
+		while (backlog() - initialBacklog > asyncCompletionFailures() - initialAsyncFailures
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(POLL_INTERVAL.toMillis());
+		}
+
+		var lag = Duration.ofNanos(System.nanoTime() - drainStart);
+
+		sampler.shutdownNow();
+
+		return new LoadReport(profile.orders(), duration, latencies,
+				completionFailures.get() + asyncCompletionFailures() - initialAsyncFailures, errors.get(), maxBacklog.get(),
+				lag);
+	}
+
+	private void lifecycle(LoadProfile profile, List<Product> products, List<CustomerIdentifier> customers,
+			LinkedHashMap<String, Latencies> latencies) {
+
+		var random = ThreadLocalRandom.current();
+		var id = timed(latencies.get("create"), () -> {
+
+			var order = new Order(customers.get(random.nextInt(customers.size())));
+			var lineItems = 1 + random.nextInt(profile.maxLineItems());
+
+			for (int i = 0; i < lineItems; i++) {
+				order.addOrderLine(products.get(random.nextInt(products.size())), Quantity.of(1));
+			}
+
+			return orders.save(order).getId();
+		});
+
+		timed(latencies.get("pay"), () -> orders.payOrder(load(id)));
+		timed(latencies.get("complete"), () -> {
+			orders.completeOrder(load(id));
+			return null;
+		});
+
+		if (random.nextDouble() < profile.cancelRatio()) {
+			timed(latencies.get("cancel"), () -> orders.cancelOrder(load(id), "Canceled by load test"));
+		}
+	}
+
+	private List<Product> seedProducts(LoadProfile profile) throws InterruptedException {
+
+		var products = new ArrayList<Product>(profile.products());
+
+		for (int i = 0; i < profile.products(); i++) {
+			products.add(catalog.save(new Product("Load test product " + i, Money.of(10, Currencies.EURO))));
+		}
+
+		var identifiers = products.stream().map(Product::getId).toList();
+		var deadline = System.nanoTime() + SEED_TIMEOUT.toNanos();
+
+		// Inventory items are created asynchronously for new products
+		while (inventory.findByProductIdentifiers(identifiers).toList().size() < identifiers.size()) {
+
+			Assert.state(System.nanoTime() < deadline, "Inventory items for seeded products were not created in time!");
+
+			Thread.sleep(POLL_INTERVAL.toMillis());
+		}
+
+		inventory.saveAll(inventory.findByProductIdentifiers(identifiers) //
+				.map(it -> it.increaseQuantity(Quantity.of(profile.stockPerProduct()))) //
+				.toList());
+
+		return products;
+	}
+
+	private List<CustomerIdentifier> seedCustomers(LoadProfile profile) {
+
+		var result = new ArrayList<CustomerIdentifier>(profile.customers());
+
+		for (int i = 0; i < profile.customers(); i++) {
+			result.add(customers.save(new Customer("Load test address " + i)).getId());
+		}
+
+		return result;
+	}
+
+	private Order load(OrderIdentifier id) {
+		return orders.get(id).orElseThrow(() -> new IllegalStateException("Order %s not found!".formatted(id)));
+	}
+
+	private long backlog() {
+
+		var count = 0L;
+
+		for (var publication : publications.findIncompletePublications()) {
+			count++;
+		}
+
+		return count;
+	}
+
+	private long asyncCompletionFailures() {
+
+		var counter = registry.find(STOCK_CHECK_FAILURES).counter();
+
+		return counter == null ? 0 : (long) counter.count();
+	}
+
+	private static <T> T timed(Latencies latencies, Supplier<T> callback) {
+
+		var start = System.nanoTime();
+
+		try {
+			return callback.get();
+		} finally {
+			latencies.record(System.nanoTime() - start);
+		}
+	}
+
+	private static void shutdown(ExecutorService executor) throws InterruptedException {
+
+		executor.shutdown();
+
+		if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+			executor.shutdownNow();
+		}
+	}
+}
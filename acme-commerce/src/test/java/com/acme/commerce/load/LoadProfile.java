@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.load;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * The shape of the load to generate. Bound from {@code acme.commerce.load.…}, so that it can be tweaked via system
+ * properties, e.g. {@code -Dacme.commerce.load.orders=10000}.
+ *
+ * @param products the number of products to seed.
+ * @param customers the number of customers to seed.
+ * @param stockPerProduct the initial stock per product.
+ * @param orders the number of order lifecycles to drive.
+ * @param maxLineItems the maximum number of line items per order.
+ * @param concurrency the number of threads driving order lifecycles.
+ * @param ratePerSecond the number of order lifecycles to start per second, 0 for as fast as possible.
+ * @param cancelRatio the ratio of completed orders to cancel afterwards.
+ * @param drainTimeout how long to wait for outstanding event publications once all lifecycles have finished.
+ * @author Oliver Drotbohm
+ */
+record LoadProfile(@DefaultValue("20") int products, @DefaultValue("50") int customers,
+		@DefaultValue("1000") long stockPerProduct, @DefaultValue("500") int orders, @DefaultValue("5") int maxLineItems,
+		@DefaultValue("16") int concurrency, @DefaultValue("0") int ratePerSecond, @DefaultValue("0.1") double cancelRatio,
+		@DefaultValue("30s") Duration drainTimeout) {}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.load;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The outcome of a load test run.
+ *
+ * @param lifecycles the number of order lifecycles driven.
+ * @param duration the time it took to drive all lifecycles.
+ * @param latencies the latencies per lifecycle step, including the overall lifecycle.
+ * @param completionFailures the number of {@link com.acme.commerce.order.OrderCompletionFailure}s, thrown
+ *          synchronously or by the asynchronous inventory check.
+ * @param errors the number of lifecycles that failed for other reasons.
+ * @param maxPublicationBacklog the maximum number of incomplete event publications observed during the run.
+ * @param publicationLag the time it took to process all outstanding event publications after the run.
+ * @author Oliver Drotbohm
+ */
+record LoadReport(int lifecycles, Duration duration, Map<String, Latencies> latencies, long completionFailures,
+		long errors, long maxPublicationBacklog, Duration publicationLag) {
+
+	double throughput() {
+		return duration.isZero() ? 0 : lifecycles / (duration.toNanos() / 1_000_000_000d);
+	}
+
+	double completionFailureRate() {
+		return lifecycles == 0 ? 0 : (double) completionFailures / lifecycles;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Record#toString()
+	 */
+	@Override
+	public String toString() {
+
+		var builder = new StringBuilder() //
+				.append("%d order lifecycles in %dms (%.1f/s)%n".formatted(lifecycles, duration.toMillis(), throughput()));
+
+		latencies.forEach((step, it) -> builder.append("  %-10s %s%n".formatted(step, it)));
+
+		return builder //
+				.append("  completion failures: %d (%.2f%%), other errors: %d%n".formatted(completionFailures,
+						completionFailureRate() * 100, errors)) //
+				.append("  event publications: max backlog %d, drained %dms after the run".formatted(maxPublicationBacklog,
+						publicationLag.toMillis())) //
+				.toString();
+	}
+}
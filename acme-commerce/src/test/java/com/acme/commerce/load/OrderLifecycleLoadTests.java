@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.load;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.modulith.events.EventPublicationRegistry;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.test.context.TestConstructor.AutowireMode;
+
+import com.acme.commerce.catalog.Catalog;
+import com.acme.commerce.customer.CustomerRepository;
+import com.acme.commerce.inventory.Inventory;
+import com.acme.commerce.order.OrderManagement;
+
+/**
+ * Drives the full order lifecycle against the embedded database and logs a {@link LoadReport}. Excluded from the
+ * default build, run with {@code mvn test -Pload-tests} and tweak the load via {@code -Dacme.commerce.load.…}, see
+ * {@link LoadProfile}.
+ *
+ * @author Oliver Drotbohm
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(properties = "acme.commerce.jdbc.enforce-budgets=false")
+@TestConstructor(autowireMode = AutowireMode.ALL)
+@RequiredArgsConstructor
+class OrderLifecycleLoadTests {
+
+	private final OrderManagement orders;
+	private final Catalog catalog;
+	private final Inventory inventory;
+	private final CustomerRepository customers;
+	private final EventPublicationRegistry publications;
+	private final MeterRegistry registry;
+	private final Environment environment;
+
+	@Test
+	void drivesOrderLifecycles() throws Exception {
+
+		var profile = Binder.get(environment).bindOrCreate("acme.commerce.load", LoadProfile.class);
+		var generator = new LoadGenerator(orders, catalog, inventory, customers, publications, registry);
+
+		var report = generator.run(profile);
+
+		log.info("Load test with {}:\n{}", profile, report);
+
+		assertThat(report.latencies().get("lifecycle").count()).isEqualTo(profile.orders());
+		assertThat(report.errors()).isZero();
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.modulith.events.EventPublicationRegistry;
+
+import com.acme.commerce.order.Order.OrderIdentifier;
+import com.acme.commerce.order.OrderEvents.OrderPaid;
+
+/**
+ * Unit tests for {@link ModuleStatistics} and {@link RollingCounter}.
+ *
+ * @author Oliver Drotbohm
+ */
+class ModuleStatisticsUnitTests {
+
+	ModuleStatistics statistics = new ModuleStatistics(new SimpleMeterRegistry(),
+			new DefaultListableBeanFactory().getBeanProvider(EventPublicationRegistry.class));
+
+	@Test
+	void resolvesModulesByPackage() {
+
+		assertThat(statistics.getModule(OrderPaid.class)).isEqualTo("order");
+		assertThat(statistics.getModule(String.class)).isNull();
+	}
+
+	@Test
+	void aggregatesInvocationsAndEventsPerModule() {
+
+		statistics.recordInvocation("order", TimeUnit.MILLISECONDS.toNanos(5));
+		statistics.recordInvocation("order", TimeUnit.MILLISECONDS.toNanos(7));
+		statistics.recordPublication(new OrderPaid(new OrderIdentifier(UUID.randomUUID())));
+
+		var snapshot = statistics.getSnapshot();
+
+		assertThat(snapshot).containsOnlyKeys(ModuleStatistics.MODULES);
+		assertThat(snapshot.get("order")).satisfies(it -> {
+			assertThat(it.invocations()).isEqualTo(2);
+			assertThat(it.eventsPublished()).isEqualTo(1);
+			assertThat(it.eventsCompleted()).isZero();
+			assertThat(it.incompletePublications()).isZero();
+		});
+		assertThat(snapshot.get("inventory").invocations()).isZero();
+	}
+
+	@Test
+	void refreshesBacklogOnlyPeriodically() {
+
+		var registry = mock(EventPublicationRegistry.class);
+		var beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("registry", registry);
+
+		var now = new AtomicLong(0);
+		var statistics = new ModuleStatistics(new SimpleMeterRegistry(),
+				beanFactory.getBeanProvider(EventPublicationRegistry.class), now::get);
+
+		statistics.getSnapshot();
+		statistics.getSnapshot();
+
+		verify(registry, times(1)).findIncompletePublications();
+
+		now.set(10_000);
+		statistics.getSnapshot();
+
+		verify(registry, times(2)).findIncompletePublications();
+	}
+
+	@Test
+	void rollingCounterOnlyConsidersRecentSeconds() {
+
+		var now = new AtomicLong(0);
+		var counter = new RollingCounter(10, now::get);
+
+		counter.increment();
+		counter.increment();
+
+		assertThat(counter.getRatePerSecond()).isEqualTo(0.2);
+
+		now.set(10_000);
+		counter.increment();
+
+		assertThat(counter.getRatePerSecond()).isEqualTo(0.1);
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.observability;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.exporter.FinishedSpan;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.order.Order;
+import com.acme.commerce.order.OrderCompletionFailure;
+
+/**
+ * Unit tests for {@link TailSampler}.
+ *
+ * @author Oliver Drotbohm
+ */
+class TailSamplerUnitTests {
+
+	List<List<FinishedSpan>> exported = new ArrayList<>();
+
+	TailSampler sampler = new TailSampler(new TailSamplingProperties(true, Duration.ofMillis(100), 2, 10,
+			Set.of("flagged-product"), Path.of("traces.log")), exported::add);
+
+	@Test
+	void dropsFastTraces() {
+
+		assertThat(sampler.isExported(span("trace", "child", "root", 10))).isFalse();
+		assertThat(sampler.isExported(span("trace", "root", null, 20))).isFalse();
+
+		assertThat(exported).isEmpty();
+	}
+
+	@Test
+	void keepsTracesWithSlowSpans() {
+
+		var child = span("trace", "child", "root", 150);
+		var root = span("trace", "root", null, 160);
+
+		sampler.isExported(child);
+		sampler.isExported(root);
+
+		assertThat(exported).containsExactly(List.of(child, root));
+	}
+
+	@Test
+	void keepsTracesFailedWithOrderCompletionFailure() {
+
+		var child = span("trace", "child", "root", 10);
+		doReturn(Map.of("exception", "OrderCompletionFailure")).when(child).getTags();
+
+		sampler.isExported(child);
+		sampler.isExported(span("trace", "root", null, 20));
+
+		assertThat(exported).hasSize(1);
+	}
+
+	@Test
+	void keepsTracesReferringToFlaggedProducts() {
+
+		var child = span("trace", "child", "root", 10);
+		doReturn(List.of(Map.entry(0L, "Published OrderCompleted[productId=flagged-product]"))).when(child).getEvents();
+
+		sampler.isExported(child);
+		sampler.isExported(span("trace", "root", null, 20));
+
+		assertThat(exported).hasSize(1);
+	}
+
+	@Test
+	void forwardsLateSpansOfKeptTraces() {
+
+		sampler.isExported(span("trace", "root", null, 200));
+
+		var late = span("trace", "listener", "root", 10);
+		sampler.isExported(late);
+
+		assertThat(exported).hasSize(2);
+		assertThat(exported.get(1)).containsExactly(late);
+	}
+
+	@Test
+	void upgradesDroppedTraceForFailedSpanFinishingAfterRoot() {
+
+		var root = span("trace", "root", null, 20);
+		var child = span("trace", "child", "root", 10);
+		doReturn(new OrderCompletionFailure(new Order(new CustomerIdentifier(UUID.randomUUID())), "Failed!")).when(child)
+				.getError();
+
+		assertThat(sampler.isExported(root)).isFalse();
+		assertThat(exported).isEmpty();
+
+		assertThat(sampler.isExported(child)).isFalse();
+		assertThat(exported).containsExactly(List.of(root, child));
+
+		var late = span("trace", "listener", "root", 10);
+		sampler.isExported(late);
+
+		assertThat(exported).hasSize(2);
+		assertThat(exported.get(1)).containsExactly(late);
+	}
+
+	@Test
+	void keepsDroppingTracesForUninterestingLateSpans() {
+
+		sampler.isExported(span("trace", "root", null, 20));
+		sampler.isExported(span("trace", "listener", "root", 10));
+
+		assertThat(exported).isEmpty();
+	}
+
+	@Test
+	void decidesOnOldestTraceIfBufferOverflows() {
+
+		var slow = span("first", "child", "root", 200);
+
+		sampler.isExported(slow);
+		sampler.isExported(span("second", "child", "root", 10));
+		sampler.isExported(span("third", "child", "root", 10));
+
+		assertThat(exported).containsExactly(List.of(slow));
+	}
+
+	private static FinishedSpan span(String traceId, String spanId, String parentId, long durationMillis) {
+
+		var start = Instant.now();
+		var span = mock(FinishedSpan.class);
+
+		doReturn(traceId).when(span).getTraceId();
+		doReturn(spanId).when(span).getSpanId();
+		doReturn(parentId).when(span).getParentId();
+		doReturn(Span.Kind.CLIENT).when(span).getKind();
+		doReturn(start).when(span).getStartTimestamp();
+		doReturn(start.plusMillis(durationMillis)).when(span).getEndTimestamp();
+		doReturn(Map.of()).when(span).getTags();
+		doReturn(List.of()).when(span).getEvents();
+
+		return span;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.modulith.test.ApplicationModuleTest;
+import org.springframework.modulith.test.ApplicationModuleTest.BootstrapMode;
+import org.springframework.test.context.TestPropertySource;
+
+import com.acme.commerce.catalog.Product;
+import com.acme.commerce.core.Currencies;
+import com.acme.commerce.core.Quantity;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+
+/**
+ * Integration tests for {@link OrderArchiver} and the lookups of archived {@link Order}s via {@link OrderManagement}.
+ *
+ * @author Oliver Drotbohm
+ */
+@ApplicationModuleTest(BootstrapMode.DIRECT_DEPENDENCIES)
+@TestPropertySource(properties = "acme.commerce.order.archive.directory=target/order-archive")
+@RequiredArgsConstructor
+class OrderArchiveIntegrationTests {
+
+	private final OrderManagement orders;
+	private final OrderArchiver archiver;
+	private final OrderRepository repository;
+
+	@Test
+	void movesClosedOrdersIntoArchive() {
+
+		var customer = new CustomerIdentifier(UUID.randomUUID());
+		var created = LocalDateTime.now().minusYears(1).truncatedTo(ChronoUnit.SECONDS);
+
+		var order = new Order(customer);
+		order.addOrderLine(new Product("Some product", Money.of(10, Currencies.EURO)), Quantity.of(2));
+		order.setDateCreated(created);
+
+		orders.payOrder(orders.save(order));
+		orders.completeOrder(orders.get(order.getId()).orElseThrow());
+
+		var open = new Order(customer);
+		open.setDateCreated(created);
+		orders.save(open);
+
+		assertThat(archiver.archive(LocalDateTime.now().minusDays(1))).isPositive();
+
+		// Only the closed order was moved
+		assertThat(repository.existsById(order.getId())).isFalse();
+		assertThat(repository.existsById(open.getId())).isTrue();
+
+		assertThat(orders.get(order.getId())).hasValueSatisfying(it -> {
+			assertThat(it.isCompleted()).isTrue();
+			assertThat(it.getDateCreated()).isEqualTo(created);
+			assertThat(it.getOrderLines()).hasSize(1);
+			assertThat(it.getTotal()).isEqualByComparingTo(Money.of(20, Currencies.EURO));
+		});
+
+		assertThat(orders.findBy(customer)).extracting(Order::getId) //
+				.containsExactlyInAnyOrder(order.getId(), open.getId());
+		assertThat(orders.findBy(created.minusDays(1), created.plusDays(1))).extracting(Order::getId) //
+				.contains(order.getId(), open.getId());
+	}
+}
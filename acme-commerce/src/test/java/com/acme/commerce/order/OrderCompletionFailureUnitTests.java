@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+
+import com.acme.commerce.catalog.Product;
+import com.acme.commerce.core.Currencies;
+import com.acme.commerce.core.Quantity;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.order.OrderCompletionReport.CompletionStatus;
+import com.acme.commerce.order.OrderCompletionReport.OrderLineCompletion;
+
+/**
+ * Unit tests for {@link OrderCompletionFailure}.
+ *
+ * @author Oliver Drotbohm
+ */
+class OrderCompletionFailureUnitTests {
+
+	@Test
+	void countsFailedCompletions() {
+
+		var report = failedReport();
+
+		assertThat(report.getStatus()).isEqualTo(CompletionStatus.FAILED);
+		assertThat(report.hasErrors()).isTrue();
+		assertThat(report.getNumberOfErrors()).isEqualTo(1);
+		assertThat(report.stream()).hasSize(2);
+	}
+
+	@Test
+	void rendersMessageFromReport() {
+
+		var report = failedReport();
+		var failure = new OrderCompletionFailure(report);
+
+		assertThat(failure.getMessage()) //
+				.startsWith("Order completion failed! FAILED") //
+				.contains("(1 of 2 failed)") //
+				.contains("Out of stock!") //
+				.isEqualTo("Order completion failed! ".concat(report.toString()));
+	}
+
+	@Test
+	void rendersMessageOnlyOnce() {
+
+		var failure = new OrderCompletionFailure(failedReport());
+
+		assertThat(failure.getMessage()).isSameAs(failure.getMessage());
+	}
+
+	@Test
+	void usesExplicitMessageIfGiven() {
+
+		var order = new Order(new CustomerIdentifier(UUID.randomUUID()));
+		var failure = new OrderCompletionFailure(order, "Order is not paid yet!");
+
+		assertThat(failure.getMessage()).isEqualTo("Order is not paid yet!");
+		assertThat(failure.getReport().getStatus()).isEqualTo(CompletionStatus.FAILED);
+	}
+
+	@Test
+	void rejectsReportWithoutErrors() {
+
+		var order = new Order(new CustomerIdentifier(UUID.randomUUID()));
+
+		assertThatIllegalArgumentException() //
+				.isThrownBy(() -> new OrderCompletionFailure(OrderCompletionReport.success(order)));
+	}
+
+	private static OrderCompletionReport failedReport() {
+
+		var order = new Order(new CustomerIdentifier(UUID.randomUUID()));
+		var first = order.addOrderLine(new Product("First", Money.of(10, Currencies.EURO)), Quantity.of(1));
+		var second = order.addOrderLine(new Product("Second", Money.of(20, Currencies.EURO)), Quantity.of(2));
+
+		return OrderCompletionReport.forCompletions(order, List.of( //
+				OrderLineCompletion.success(first), //
+				OrderLineCompletion.error(second, "Out of stock!")));
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.modulith.test.ApplicationModuleTest;
+import org.springframework.modulith.test.ApplicationModuleTest.BootstrapMode;
+import org.springframework.test.context.TestPropertySource;
+
+import com.acme.commerce.catalog.Product;
+import com.acme.commerce.core.Currencies;
+import com.acme.commerce.core.Quantity;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+
+/**
+ * Integration tests for {@link OrderManagement} recording transitions in the {@link OrderJournal}. Statement budgets are
+ * not enforced, as transitioning {@link Order}s by identifier loads them to record the transition in the journal.
+ *
+ * @author Oliver Drotbohm
+ */
+@ApplicationModuleTest(BootstrapMode.DIRECT_DEPENDENCIES)
+@TestPropertySource(properties = { "acme.commerce.order.journal=true", "acme.commerce.jdbc.enforce-budgets=false" })
+@RequiredArgsConstructor
+class OrderJournalIntegrationTests {
+
+	private final OrderManagement orders;
+	private final OrderJournal journal;
+	private final OrderRepository repository;
+	private final OrderTransitions transitions;
+
+	@Test
+	void recordsTransitionsInsteadOfUpdatingOrders() {
+
+		var order = new Order(new CustomerIdentifier(UUID.randomUUID()));
+		order.addOrderLine(new Product("Some product", Money.of(10, Currencies.EURO)), Quantity.of(2));
+
+		orders.save(order);
+		orders.payOrder(orders.get(order.getId()).orElseThrow());
+		orders.completeOrder(orders.get(order.getId()).orElseThrow());
+
+		// The snapshot is untouched, the transitions are applied on lookup
+		assertThat(repository.findById(order.getId())).hasValueSatisfying(it -> assertThat(it.isOpen()).isTrue());
+		assertThat(transitions.findByOrderIdInOrderBySequenceNumber(List.of(order.getId().id()))) //
+				.extracting(OrderTransition::getStatus) //
+				.containsExactly(OrderStatus.PAID, OrderStatus.COMPLETED);
+
+		assertThat(orders.get(order.getId())).hasValueSatisfying(it -> assertThat(it.isCompleted()).isTrue());
+		assertThat(orders.findBy(OrderStatus.COMPLETED)).extracting(Order::getId).contains(order.getId());
+		assertThat(orders.findBy(OrderStatus.OPEN)).extracting(Order::getId).doesNotContain(order.getId());
+		assertThat(orders.findHistory(order.getCustomer().getId(), 1)).singleElement()
+				.satisfies(it -> assertThat(it.getStatus()).isEqualTo(OrderStatus.COMPLETED));
+
+		journal.compact();
+
+		assertThat(repository.findById(order.getId())).hasValueSatisfying(it -> assertThat(it.isCompleted()).isTrue());
+		assertThat(transitions.findByOrderIdInOrderBySequenceNumber(List.of(order.getId().id()))).isEmpty();
+	}
+
+	@Test
+	void rejectsTransitionOfOutdatedOrder() {
+
+		var order = orders.save(new Order(new CustomerIdentifier(UUID.randomUUID())));
+		var outdated = orders.get(order.getId()).orElseThrow();
+
+		orders.payOrder(orders.get(order.getId()).orElseThrow());
+
+		// Transitioned in its current state, which is already paid
+		assertThat(orders.payOrder(outdated)).isFalse();
+		assertThat(outdated.isOpen()).isTrue();
+		assertThat(orders.findBy(OrderStatus.PAID)).extracting(Order::getId).containsOnlyOnce(order.getId());
+	}
+
+	@Test
+	void recordsTransitionsByIdentifier() {
+
+		var identifier = orders.save(new Order(new CustomerIdentifier(UUID.randomUUID()))).getId();
+
+		assertThat(orders.payOrder(identifier)).isTrue();
+		assertThat(orders.payOrder(identifier)).isFalse();
+
+		assertThat(repository.findById(identifier)).hasValueSatisfying(it -> assertThat(it.isOpen()).isTrue());
+		assertThat(orders.get(identifier)).hasValueSatisfying(it -> assertThat(it.isPaid()).isTrue());
+	}
+}
@@ -15,17 +15,315 @@
  */
 package com.acme.commerce.order;
 
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+
+import org.javamoney.moneta.Money;
 import org.junit.jupiter.api.Test;
 import org.springframework.modulith.test.ApplicationModuleTest;
+import org.springframework.modulith.test.ApplicationModuleTest.BootstrapMode;
+import org.springframework.modulith.test.Scenario;
+
+import com.acme.commerce.catalog.Catalog;
+import com.acme.commerce.catalog.Product;
+import com.acme.commerce.catalog.Product.ProductIdentifier;
+import com.acme.commerce.core.Currencies;
+import com.acme.commerce.core.Quantity;
+import com.acme.commerce.core.StatementStatistics;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+import com.acme.commerce.order.Order.LineItemMergePolicy;
+import com.acme.commerce.order.Order.OrderIdentifier;
+import com.acme.commerce.order.OrderEvents.OrderCompleted;
+import com.acme.commerce.order.OrderTransitionReport.Outcome;
 
 /**
  * @author Oliver Drotbohm
  */
-@ApplicationModuleTest
+@ApplicationModuleTest(BootstrapMode.DIRECT_DEPENDENCIES)
+@RequiredArgsConstructor
 class OrderModuleTests {
 
+	private final OrderManagement orders;
+	private final Catalog catalog;
+	private final MeterRegistry registry;
+
 	@Test
 	void bootstrapsModule() {
 
 	}
+
+	@Test
+	void publishesLineItemSnapshotOnCompletion(Scenario scenario) {
+
+		var product = new Product("Some product", Money.of(10, Currencies.EURO));
+
+		var order = new Order(new CustomerIdentifier(UUID.randomUUID()));
+		order.addOrderLine(product, Quantity.of(2));
+
+		orders.payOrder(orders.save(order));
+
+		scenario.stimulate(() -> orders.completeOrder(orders.get(order.getId()).orElseThrow()))
+				.andWaitForEventOfType(OrderCompleted.class)
+				.toArriveAndVerify(it -> {
+
+					assertThat(it.orderId()).isEqualTo(order.getId());
+					assertThat(it.snapshot()).hasValueSatisfying(lines -> {
+						assertThat(lines).hasSize(1);
+						assertThat(lines.get(0).productId()).isEqualTo(product.getId());
+						assertThat(lines.get(0).toQuantity().isEqualTo(Quantity.of(2))).isTrue();
+					});
+				});
+	}
+
+	@Test
+	void paysOrdersInBulk() {
+
+		var first = orders.save(new Order(new CustomerIdentifier(UUID.randomUUID())));
+		var second = orders.save(new Order(new CustomerIdentifier(UUID.randomUUID())));
+		var unknown = new OrderIdentifier(UUID.randomUUID());
+
+		orders.payOrder(second);
+
+		var report = orders.payOrders(List.of(first.getId(), second.getId(), unknown));
+
+		assertThat(report.getOutcome(first.getId())).hasValue(Outcome.TRANSITIONED);
+		assertThat(report.getOutcome(second.getId())).hasValue(Outcome.REJECTED);
+		assertThat(report.getOutcome(unknown)).hasValue(Outcome.NOT_FOUND);
+		assertThat(report.isSuccessful()).isFalse();
+
+		assertThat(orders.get(first.getId())).hasValueSatisfying(it -> assertThat(it.isPaid()).isTrue());
+	}
+
+	@Test
+	void recordsTransitionMetrics() {
+
+		var success = registry.get(OrderMetrics.TRANSITIONS).tags("transition", "paid", "outcome", "success").timer();
+		var rejected = registry.get(OrderMetrics.TRANSITIONS).tags("transition", "paid", "outcome", "rejected").timer();
+		var successesBefore = success.count();
+		var rejectionsBefore = rejected.count();
+
+		var order = orders.save(new Order(new CustomerIdentifier(UUID.randomUUID())));
+
+		orders.payOrder(order);
+		orders.payOrder(order);
+
+		assertThat(success.count()).isEqualTo(successesBefore + 1);
+		assertThat(rejected.count()).isEqualTo(rejectionsBefore + 1);
+	}
+
+	@Test
+	void completesOrderWithConstantNumberOfStatements() {
+
+		var single = StatementStatistics.measure(() -> orders.completeOrder(createPaidOrder(1)));
+		var multiple = StatementStatistics.measure(() -> orders.completeOrder(createPaidOrder(10)));
+
+		assertThat(multiple.statements()).isEqualTo(single.statements());
+	}
+
+	@Test
+	void maintainsOrderHistoryPerCustomer() {
+
+		var order = createPaidOrder(2);
+		var customer = order.getCustomer().getId();
+
+		orders.completeOrder(order);
+
+		assertThat(orders.findHistory(customer, 10)).singleElement().satisfies(it -> {
+			assertThat(it.getId()).isEqualTo(order.getId());
+			assertThat(it.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+			assertThat(it.getTotal()).isEqualTo(order.getTotal());
+		});
+	}
+
+	@Test
+	void refreshesOrderHistoryWhenSavingExistingOrder() {
+
+		var order = orders.save(createOrder(1));
+
+		order.addOrderLine(new Product("Another product", Money.of(20, Currencies.EURO)), Quantity.of(1));
+
+		var saved = orders.save(order);
+
+		assertThat(orders.findHistory(order.getCustomer().getId(), 10)).singleElement().satisfies(it -> {
+			assertThat(it.getStatus()).isEqualTo(OrderStatus.OPEN);
+			assertThat(it.getTotal()).isEqualTo(saved.getTotal());
+		});
+	}
+
+	@Test
+	void insertsLineItemsInBatches() {
+
+		// Stays below the batch size of 50, so that the line items are inserted in a single batch
+		var single = StatementStatistics.measure(() -> orders.save(createOrder(1)));
+		var multiple = StatementStatistics.measure(() -> orders.save(createOrder(40)));
+
+		assertThat(multiple.statements()).isEqualTo(single.statements());
+	}
+
+	@Test
+	void mergesLineItemsForTheSameProduct() {
+
+		var product = new Product("Some product", Money.of(10, Currencies.EURO));
+		var order = new Order(new CustomerIdentifier(UUID.randomUUID()));
+
+		order.addOrderLine(product, Quantity.of(1), LineItemMergePolicy.MERGE);
+		order.addOrderLine(product, Quantity.of(2), LineItemMergePolicy.MERGE);
+
+		assertThat(order.getOrderLines()).singleElement().satisfies(it -> {
+			assertThat(it.getQuantity().isEqualTo(Quantity.of(3))).isTrue();
+			assertThat(it.getPrice()).isEqualByComparingTo(Money.of(30, Currencies.EURO));
+		});
+
+		orders.save(order);
+
+		assertThat(orders.get(order.getId())).hasValueSatisfying(it -> {
+			assertThat(it.getOrderLines(product)).hasSize(1);
+			assertThat(it.getOrderLines(product).getTotal()).isEqualByComparingTo(Money.of(30, Currencies.EURO));
+		});
+	}
+
+	@Test
+	void createsOrderFromProductIdentifiersWithConstantNumberOfLookups() {
+
+		var customer = new CustomerIdentifier(UUID.randomUUID());
+		var one = createLineItems(1);
+		var twenty = createLineItems(20);
+
+		var single = StatementStatistics.measure(() -> orders.createOrder(customer, one));
+		var multiple = StatementStatistics.measure(() -> orders.createOrder(customer, twenty));
+
+		// A single product lookup and batched inserts
+		assertThat(multiple.statements()).isEqualTo(single.statements());
+		assertThat(orders.findBy(customer)).extracting(it -> it.getOrderLines().stream().count()) //
+				.containsExactlyInAnyOrder(1L, 20L);
+	}
+
+	@Test
+	void rejectsOrderForUnknownProducts() {
+
+		var unknown = new ProductIdentifier(UUID.randomUUID());
+
+		assertThatIllegalArgumentException() //
+				.isThrownBy(() -> orders.createOrder(new CustomerIdentifier(UUID.randomUUID()),
+						Map.of(unknown, Quantity.of(1)))) //
+				.withMessageContaining(unknown.toString());
+	}
+
+	@Test
+	void transitionsOrdersByIdentifier() {
+
+		var identifier = orders.save(createOrder(2)).getId();
+
+		assertThat(orders.completeOrder(identifier)).isFalse();
+		assertThat(orders.payOrder(identifier)).isTrue();
+		assertThat(orders.payOrder(identifier)).isFalse();
+		assertThat(orders.completeOrder(identifier)).isTrue();
+		assertThat(orders.cancelOrder(identifier, "Changed my mind")).isTrue();
+		assertThat(orders.cancelOrder(identifier, "Changed my mind")).isFalse();
+		assertThat(orders.payOrder(new OrderIdentifier(UUID.randomUUID()))).isFalse();
+
+		assertThat(orders.get(identifier)).hasValueSatisfying(it -> assertThat(it.isCanceled()).isTrue());
+		assertThat(orders.findHistory(orders.get(identifier).orElseThrow().getCustomer().getId(), 1)).singleElement()
+				.satisfies(it -> assertThat(it.getStatus()).isEqualTo(OrderStatus.CANCELLED));
+	}
+
+	@Test
+	void transitionsOrdersByIdentifierWithoutLoadingThem() {
+
+		var identifier = orders.save(createOrder(2)).getId();
+
+		// The conditional update of the order and the one of its history entry
+		var paid = StatementStatistics.measure(() -> orders.payOrder(identifier));
+		var completed = StatementStatistics.measure(() -> orders.completeOrder(identifier));
+
+		// The locking lookup of the status, the conditional update and the one of the history entry
+		var canceled = StatementStatistics.measure(() -> orders.cancelOrder(identifier, "Changed my mind"));
+
+		assertThat(paid.statements()).isEqualTo(2);
+		assertThat(completed.statements()).isEqualTo(2);
+		assertThat(canceled.statements()).isEqualTo(3);
+	}
+
+	@Test
+	void publishesCompletionByIdentifierWithoutSnapshot(Scenario scenario) {
+
+		var order = createPaidOrder(2);
+
+		scenario.stimulate(() -> orders.completeOrder(order.getId()))
+				.andWaitForEventOfType(OrderCompleted.class)
+				.toArriveAndVerify(it -> {
+					assertThat(it.orderId()).isEqualTo(order.getId());
+					assertThat(it.snapshot()).isEmpty();
+				});
+	}
+
+	@Test
+	void completesOrderOnlyOnceIfCompletedConcurrently() throws Exception {
+
+		var order = createPaidOrder(2);
+		var barrier = new CyclicBarrier(2);
+
+		// Both threads hold an instance of the paid order, only one of them must succeed
+		var attempts = List.of(order, orders.get(order.getId()).orElseThrow()).stream() //
+				.map(it -> CompletableFuture.supplyAsync(() -> {
+
+					try {
+						barrier.await();
+						orders.completeOrder(it);
+						return true;
+					} catch (OrderCompletionFailure o_O) {
+						return false;
+					} catch (Exception o_O) {
+						throw new IllegalStateException(o_O);
+					}
+				})) //
+				.toList();
+
+		var results = attempts.stream().map(CompletableFuture::join).toList();
+
+		assertThat(results).containsExactlyInAnyOrder(true, false);
+		assertThat(order.isPaid()).isTrue();
+		assertThat(orders.get(order.getId())).hasValueSatisfying(it -> assertThat(it.isCompleted()).isTrue());
+	}
+
+	private Map<ProductIdentifier, Quantity> createLineItems(int numberOfLineItems) {
+
+		var lineItems = new LinkedHashMap<ProductIdentifier, Quantity>();
+
+		for (int i = 0; i < numberOfLineItems; i++) {
+			var product = catalog.save(new Product("Product " + i, Money.of(10, Currencies.EURO)));
+			lineItems.put(product.getId(), Quantity.of(1));
+		}
+
+		return lineItems;
+	}
+
+	private Order createPaidOrder(int numberOfLineItems) {
+
+		var order = createOrder(numberOfLineItems);
+
+		orders.payOrder(orders.save(order));
+
+		return orders.get(order.getId()).orElseThrow();
+	}
+
+	private static Order createOrder(int numberOfLineItems) {
+
+		var order = new Order(new CustomerIdentifier(UUID.randomUUID()));
+
+		for (int i = 0; i < numberOfLineItems; i++) {
+			order.addOrderLine(new Product("Product " + i, Money.of(10, Currencies.EURO)), Quantity.of(1));
+		}
+
+		return order;
+	}
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.commerce.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.test.ApplicationModuleTest;
+import org.springframework.modulith.test.ApplicationModuleTest.BootstrapMode;
+import org.springframework.test.context.TestPropertySource;
+
+import com.acme.commerce.core.Shards;
+import com.acme.commerce.customer.Customer.CustomerIdentifier;
+
+/**
+ * Integration tests for {@link OrderManagement} with {@link Order}s sharded across three in-memory H2 databases.
+ *
+ * @author Oliver Drotbohm
+ */
+@ApplicationModuleTest(BootstrapMode.DIRECT_DEPENDENCIES)
+@TestPropertySource(properties = "acme.commerce.datasource.shards.urls=" //
+		+ "jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1," //
+		+ "jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1")
+@RequiredArgsConstructor
+class ShardedOrderManagementIntegrationTests {
+
+	private static final int NUMBER_OF_ORDERS = 30;
+
+	private final OrderManagement orders;
+	private final DataSource dataSource;
+	private final MeterRegistry registry;
+
+	@Test
+	void distributesOrdersAcrossShardsAndMergesResults() {
+
+		var created = new ArrayList<Order>();
+
+		for (int i = 0; i < NUMBER_OF_ORDERS; i++) {
+			created.add(orders.save(new Order(new CustomerIdentifier(UUID.randomUUID()))));
+		}
+
+		var jdbc = new JdbcTemplate(dataSource);
+		var counts = List.of(0, 1, 2).stream() //
+				.map(it -> Shards.on(it, () -> jdbc.queryForObject("select count(*) from orders", Long.class))) //
+				.toList();
+
+		assertThat(counts).allSatisfy(it -> assertThat(it).isPositive());
+		assertThat(counts.stream().mapToLong(Long::longValue).sum()).isGreaterThanOrEqualTo(NUMBER_OF_ORDERS);
+
+		var order = created.get(0);
+
+		// Single customer lookups
+		assertThat(orders.findBy(order.getCustomer().getId())).extracting(Order::getId).containsExactly(order.getId());
+
+		// Fan out lookups
+		assertThat(orders.get(order.getId())).isPresent();
+		assertThat(orders.contains(order.getId())).isTrue();
+		assertThat(orders.findBy(OrderStatus.OPEN)).extracting(Order::getId)
+				.containsAll(created.stream().map(Order::getId).toList());
+
+		var page = orders.findAll(PageRequest.of(1, 10));
+
+		assertThat(page.getContent()).hasSize(10);
+		assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(NUMBER_OF_ORDERS);
+
+		// Fan out pool is instrumented
+		assertThat(registry.find("executor.completed").tag("name", OrderShards.EXECUTOR_NAME).functionCounter()) //
+				.isNotNull() //
+				.satisfies(it -> assertThat(it.count()).isPositive());
+	}
+
+	@Test
+	void transitionsOrdersOnTheirShards() {
+
+		var order = orders.save(new Order(new CustomerIdentifier(UUID.randomUUID())));
+
+		assertThat(orders.payOrder(order)).isTrue();
+
+		var report = orders.completeOrders(List.of(order.getId()));
+
+		assertThat(report.getOutcome(order.getId())).hasValue(OrderTransitionReport.Outcome.TRANSITIONED);
+		assertThat(orders.findHistory(order.getCustomer().getId(), 1)).singleElement()
+				.satisfies(it -> assertThat(it.getStatus()).isEqualTo(OrderStatus.COMPLETED));
+	}
+}